@@ -0,0 +1,28 @@
+package chess.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result reports
+ * allocation rate (gc.alloc.rate.norm, bytes per operation) next to
+ * throughput. Takes the usual JMH command line options, e.g. a benchmark
+ * name regex.
+ * <pre>
+ *     mvn -pl benchmarks package -am -DskipTests
+ *     java -jar benchmarks/target/benchmarks.jar [jmh options]
+ * </pre>
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,41 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Perft;
+
+/**
+ * Positions the benchmarks run against, one per phase of the game
+ */
+public enum Fixture {
+    OPENING(Perft.Position.INITIAL),
+    MIDDLEGAME(Perft.Position.MIDDLEGAME),
+    ENDGAME(Perft.Position.ENDGAME);
+
+    private final Perft.Position position;
+
+    Fixture(Perft.Position position) {
+        this.position = position;
+    }
+
+    public ChessGame newGame() {
+        return position.newGame();
+    }
+
+    /**
+     * @return the position of the first piece of the given team and type,
+     * scanning from a1, or null if there is none
+     */
+    public static ChessPosition find(ChessGame game, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+                if (piece != null && piece.getTeamColor() == color && piece.getPieceType() == type) {
+                    return ChessPosition.of(row, col);
+                }
+            }
+        }
+        return null;
+    }
+}
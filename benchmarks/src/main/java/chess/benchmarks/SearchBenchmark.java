@@ -0,0 +1,70 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearcher;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reach a fixed depth with 1 to N Lazy SMP threads; dividing the
+ * single-thread time by each result gives the speedup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"MIDDLEGAME"})
+    public Fixture fixture;
+
+    @Param({"8"})
+    public int depth;
+
+    private ChessGame game;
+    private ParallelSearcher searcher;
+
+    @Setup
+    public void setUp() {
+        game = fixture.newGame();
+        searcher = new ParallelSearcher(threads, 64);
+    }
+
+    /**
+     * Every search starts from an empty table, as a fresh analysis would
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        searcher.getTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        searcher.close();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return searcher.search(game, SearchLimits.depth(depth));
+    }
+}
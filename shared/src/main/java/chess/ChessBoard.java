@@ -1,18 +1,68 @@
 package chess;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are stored as twelve 64-bit bitboards (one per color and piece type)
+ * plus per-color and total occupancy masks. Square {@code 0} is a1 (row 1,
+ * column 1) and square {@code 63} is h8 (row 8, column 8). A small mailbox
+ * mirrors the bitboards so {@link #getPiece} is a single array read that
+ * returns one of the shared {@link ChessPiece#of} instances.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard {
 
-    ChessPiece[][] board= new ChessPiece[8][8];;
+    static final int NO_PIECE = -1;
+    static final int PIECE_TYPES = 6;
+    static final int PIECE_COUNT = 12;
+
+    // Color and piece type codes match the TeamColor and PieceType ordinals
+    static final int WHITE = 0;
+    static final int BLACK = 1;
+
+    static final int KING = 0;
+    static final int QUEEN = 1;
+    static final int BISHOP = 2;
+    static final int KNIGHT = 3;
+    static final int ROOK = 4;
+    static final int PAWN = 5;
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = 0x8080808080808080L;
+
+    final long[] pieces = new long[PIECE_COUNT];
+    final long[] colors = new long[2];
+    long occupied;
+    private long key;
+    // Material and piece-square totals, white minus black, kept up to date
+    // like the key; phase counts the pieces left, see PieceSquareTables
+    private int middlegame;
+    private int endgame;
+    private int phase;
+    private final byte[] mailbox = new byte[64];
 
     public ChessBoard() {
+        Arrays.fill(mailbox, (byte) NO_PIECE);
+    }
+
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, PIECE_COUNT);
+        System.arraycopy(other.colors, 0, colors, 0, 2);
+        occupied = other.occupied;
+        key = other.key;
+        middlegame = other.middlegame;
+        endgame = other.endgame;
+        phase = other.phase;
+        System.arraycopy(other.mailbox, 0, mailbox, 0, 64);
     }
 
     /**
@@ -22,8 +72,13 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
-
+        int square = square(position);
+        if (mailbox[square] != NO_PIECE) {
+            remove(square);
+        }
+        if (piece != null) {
+            put(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -34,7 +89,8 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        int piece = mailbox[square(position)];
+        return piece == NO_PIECE ? null : ChessPiece.of(piece);
     }
 
     /**
@@ -43,36 +99,19 @@ public class ChessBoard {
      */
 
     public void resetBoard() {
+        clear();
 
-        for (int x = 0; x < 8; x++) {
-            for (int y = 0; y < 8; y++) {
-                board[x][y] = null;
-            }
-        }
-
-        board[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        board[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        board[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        board[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        board[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        board[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        board[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        board[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        for (int i = 0; i < 8; i++){
-            board[1][i]=new ChessPiece (ChessGame.TeamColor.WHITE,ChessPiece.PieceType.PAWN);
-        }
-        board[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        board[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        board[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        board[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        board[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        board[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        board[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        board[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        ChessPiece.PieceType[] backRank = {
+                ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+        };
         for (int i = 0; i < 8; i++) {
-            board[6][i] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+            put(i, pieceIndex(ChessGame.TeamColor.WHITE, backRank[i]));
+            put(8 + i, pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            put(48 + i, pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            put(56 + i, pieceIndex(ChessGame.TeamColor.BLACK, backRank[i]));
         }
-
     }
 
     public boolean isInBounds(ChessPosition position) {
@@ -81,23 +120,308 @@ public class ChessBoard {
 
         return row >= 1 && row <= 7 && col >= 1 && col <= 7;
     }
+
+    /**
+     * Gets the Zobrist key of the pieces on the board. The key is kept up to
+     * date on every change, so reading it is free.
+     *
+     * @return a 64-bit hash of which piece stands on which square
+     */
+    public long getZobristKey() {
+        return key;
+    }
+
+    /**
+     * Gets a static evaluation of the board: material plus piece-square
+     * bonuses, blended from middlegame toward endgame values as pieces come
+     * off. The terms are kept up to date as pieces move, so this is O(1).
+     *
+     * @param color the team to score the board for
+     * @return the score in centipawns, positive when that team is ahead
+     */
+    public int score(ChessGame.TeamColor color) {
+        int weight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * weight + endgame * (PieceSquareTables.MAX_PHASE - weight))
+                / PieceSquareTables.MAX_PHASE;
+        return color == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Static exchange evaluation: determines whether a capture gains at least
+     * the given material once every profitable recapture on its target square
+     * has been made, without playing any of them
+     *
+     * @param move      packed move ({@link PackedMove}) of a piece on this board
+     * @param threshold material the moving team must come out ahead by, in
+     *                  centipawns; 0 asks whether the capture at least breaks even
+     * @return True if the exchange gains at least the threshold
+     */
+    public boolean staticExchangeAtLeast(int move, int threshold) {
+        return StaticExchange.atLeast(this, move, threshold);
+    }
+
+    /**
+     * Counts the pieces of one team and type on the board
+     *
+     * @param color the team to count pieces for
+     * @param type  the type of piece to count
+     * @return how many such pieces are on the board
+     */
+    public int countPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return Long.bitCount(pieces[pieceIndex(color, type)]);
+    }
+
+    /**
+     * Writes the board in a compact binary form: the occupancy bitboard as a
+     * long, then one 4-bit piece code per occupied square in square order,
+     * two to a byte with the first in the low nibble. A full starting board
+     * takes 24 bytes.
+     *
+     * @param out buffer to write {@link #encodedSize()} bytes to
+     */
+    public void writeTo(ByteBuffer out) {
+        out.putLong(occupied);
+        int low = NO_PIECE;
+        for (long bits = occupied; bits != 0; bits &= bits - 1) {
+            int piece = mailbox[Long.numberOfTrailingZeros(bits)];
+            if (low == NO_PIECE) {
+                low = piece;
+            } else {
+                out.put((byte) (low | piece << 4));
+                low = NO_PIECE;
+            }
+        }
+        if (low != NO_PIECE) {
+            out.put((byte) low);
+        }
+    }
+
+    /**
+     * Reads a board written by {@link #writeTo(ByteBuffer)}. The buffer must
+     * use the same byte order it was written with.
+     *
+     * @param in buffer positioned at the start of the board
+     * @return the board that was read
+     * @throws IllegalArgumentException if the data holds an unknown piece code
+     */
+    public static ChessBoard readFrom(ByteBuffer in) {
+        ChessBoard board = new ChessBoard();
+        int packed = 0;
+        boolean high = false;
+        for (long bits = in.getLong(); bits != 0; bits &= bits - 1) {
+            if (!high) {
+                packed = in.get();
+            }
+            int piece = high ? (packed >>> 4) & 0xF : packed & 0xF;
+            high = !high;
+            if (piece >= PIECE_COUNT) {
+                throw new IllegalArgumentException("Unknown piece code " + piece);
+            }
+            board.put(Long.numberOfTrailingZeros(bits), piece);
+        }
+        return board;
+    }
+
+    /**
+     * @return number of bytes {@link #writeTo(ByteBuffer)} writes for this board
+     */
+    public int encodedSize() {
+        return Long.BYTES + (Long.bitCount(occupied) + 1) / 2;
+    }
+
+    /**
+     * Gets the type of the piece on a square, for code working with packed
+     * moves ({@link PackedMove}) that would rather not build positions
+     *
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return the piece type code ({@link ChessPiece.PieceType} ordinal) of
+     * the piece on the square, or -1 if the square is empty
+     */
+    public int pieceTypeAt(int square) {
+        int piece = mailbox[square];
+        return piece == NO_PIECE ? -1 : typeOf(piece);
+    }
+
+    /**
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return the piece index on the square, or {@link #NO_PIECE}
+     */
+    int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * Places a piece on an empty square
+     */
+    void put(int square, int piece) {
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) piece;
+        key ^= Zobrist.piece(piece, square);
+        middlegame += PieceSquareTables.middlegame(piece, square);
+        endgame += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+    }
+
+    /**
+     * Removes the piece on an occupied square
+     *
+     * @return the piece index that was removed
+     */
+    int remove(int square) {
+        int piece = mailbox[square];
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        colors[colorOf(piece)] &= bit;
+        occupied &= bit;
+        mailbox[square] = (byte) NO_PIECE;
+        key ^= Zobrist.piece(piece, square);
+        middlegame -= PieceSquareTables.middlegame(piece, square);
+        endgame -= PieceSquareTables.endgame(piece, square);
+        phase -= PieceSquareTables.phase(piece);
+        return piece;
+    }
+
+    /**
+     * @param color {@link #WHITE} or {@link #BLACK}
+     * @return bitboard of every square attacked by at least one piece of that color
+     */
+    long attacks(int color) {
+        return attacks(color, occupied);
+    }
+
+    /**
+     * Same as {@link #attacks(int)}, but with sliding pieces blocked by the
+     * given occupancy instead of the board's, e.g. to let them see through a king
+     */
+    long attacks(int color, long occupied) {
+        int base = color * PIECE_TYPES;
+        long pawns = pieces[base + PAWN];
+        long result = color == WHITE
+                ? ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9)
+                : ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7);
+
+        for (long knights = pieces[base + KNIGHT]; knights != 0; knights &= knights - 1) {
+            result |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+        }
+        long diagonal = pieces[base + BISHOP] | pieces[base + QUEEN];
+        for (; diagonal != 0; diagonal &= diagonal - 1) {
+            result |= Attacks.bishop(Long.numberOfTrailingZeros(diagonal), occupied);
+        }
+        long straight = pieces[base + ROOK] | pieces[base + QUEEN];
+        for (; straight != 0; straight &= straight - 1) {
+            result |= Attacks.rook(Long.numberOfTrailingZeros(straight), occupied);
+        }
+        for (long kings = pieces[base + KING]; kings != 0; kings &= kings - 1) {
+            result |= Attacks.king(Long.numberOfTrailingZeros(kings));
+        }
+        return result;
+    }
+
+    /**
+     * @param square   square index from 0 (a1) to 63 (h8)
+     * @param color    {@link #WHITE} or {@link #BLACK}
+     * @param occupied occupancy that blocks sliding pieces
+     * @return bitboard of the pieces of that color attacking the square
+     */
+    long attackersTo(int square, int color, long occupied) {
+        int base = color * PIECE_TYPES;
+        return (Attacks.pawn(1 - color, square) & pieces[base + PAWN])
+                | (Attacks.knight(square) & pieces[base + KNIGHT])
+                | (Attacks.king(square) & pieces[base + KING])
+                | (Attacks.bishop(square, occupied) & (pieces[base + BISHOP] | pieces[base + QUEEN]))
+                | (Attacks.rook(square, occupied) & (pieces[base + ROOK] | pieces[base + QUEEN]));
+    }
+
+    /**
+     * Whether any piece of a color attacks a square. Works backward from the
+     * square, trying the cheap leaper patterns before the sliders, and stops
+     * at the first attacker found.
+     *
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @param color  {@link #WHITE} or {@link #BLACK}
+     */
+    boolean isAttacked(int square, int color) {
+        int base = color * PIECE_TYPES;
+        if ((Attacks.knight(square) & pieces[base + KNIGHT]) != 0
+                || (Attacks.pawn(1 - color, square) & pieces[base + PAWN]) != 0
+                || (Attacks.king(square) & pieces[base + KING]) != 0) {
+            return true;
+        }
+        long queens = pieces[base + QUEEN];
+        long diagonal = pieces[base + BISHOP] | queens;
+        if (diagonal != 0 && (Attacks.bishop(square, occupied) & diagonal) != 0) {
+            return true;
+        }
+        long straight = pieces[base + ROOK] | queens;
+        return straight != 0 && (Attacks.rook(square, occupied) & straight) != 0;
+    }
+
+    void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        key = 0L;
+        middlegame = 0;
+        endgame = 0;
+        phase = 0;
+        Arrays.fill(mailbox, (byte) NO_PIECE);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceIndex(color.ordinal(), type.ordinal());
+    }
+
+    static int pieceIndex(int color, int type) {
+        return color * PIECE_TYPES + type;
+    }
+
+    static int colorOf(int piece) {
+        return piece / PIECE_TYPES;
+    }
+
+    static int typeOf(int piece) {
+        return piece % PIECE_TYPES;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        return key == that.key && Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(key);
     }
 
 
+    /**
+     * @return a snapshot of the board as a row-major array, where
+     * {@code [row - 1][column - 1]} holds the piece on that square or null
+     */
     public ChessPiece[][] getBoard(){
+        ChessPiece[][] board = new ChessPiece[8][8];
+        for (int square = 0; square < 64; square++) {
+            int piece = mailbox[square];
+            if (piece != NO_PIECE) {
+                board[square / 8][square % 8] = ChessPiece.of(piece);
+            }
+        }
         return board;
     }
 
-}
\ No newline at end of file
+}
@@ -1,6 +1,15 @@
 package chess;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -10,24 +19,193 @@ import java.util.Collection;
  */
 public class ChessGame {
 
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    /**
+     * Castling rights that survive a move touching each square: moving a king
+     * or rook off its starting square, or capturing a rook on it, clears the
+     * matching rights
+     */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[63] &= ~BLACK_KINGSIDE;
+    }
+
+    private static final TeamColor[] TEAMS = TeamColor.values();
+    private static final int EN_PASSANT_CAPTURE = 1 << 15;
+    // The clock is kept in the top 16 bits of a history state
+    private static final int MAX_HALFMOVE_CLOCK = 0xFFFF;
+
+    private ChessBoard board;
+    private TeamColor teamTurn = TeamColor.WHITE;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+    // Plies played before the history began, e.g. in a game loaded from FEN
+    private int startPly;
+
+    // Move history, one slot per ply: the packed move, which fits in a short,
+    // the state it overwrote (captured piece, castling rights, en passant
+    // square, halfmove clock) and the Zobrist key of the position before it. Slots from ply
+    // up to historySize hold moves that were taken back and can be redone.
+    private short[] historyMoves = new short[64];
+    private int[] historyStates = new int[64];
+    private long[] historyKeys = new long[64];
+    private int ply;
+    private int historySize;
+
     public ChessGame() {
+        board = new ChessBoard();
+        board.resetBoard();
+        castlingRights = ALL_CASTLING;
+    }
+
+    /**
+     * Starts a game on the given board, as {@link #setBoard} would
+     */
+    ChessGame(ChessBoard board) {
+        setBoard(board);
+    }
 
+    /**
+     * Creates an independent copy of another game, e.g. to hand to another
+     * thread. The copy gets the moves played so far, so it can take them back
+     * and spot repetitions, but not moves that were taken back.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        startPly = other.startPly;
+        ply = other.ply;
+        historySize = other.ply;
+        int capacity = Math.max(ply, historyMoves.length);
+        historyMoves = Arrays.copyOf(other.historyMoves, capacity);
+        historyStates = Arrays.copyOf(other.historyStates, capacity);
+        historyKeys = Arrays.copyOf(other.historyKeys, capacity);
+    }
+
+    /**
+     * Writes the game's current position in a compact binary form: the board
+     * as written by {@link ChessBoard#writeTo(ByteBuffer)}, then a byte
+     * holding the team to move (bit 0) and castling rights (bits 1-4), a byte
+     * holding the en passant square plus one, and the halfmove clock and full
+     * move number as unsigned shorts. The move history is not written.
+     *
+     * @param out buffer to write {@link #encodedSize()} bytes to
+     */
+    public void writeTo(ByteBuffer out) {
+        board.writeTo(out);
+        out.put((byte) (teamTurn.ordinal() | castlingRights << 1));
+        out.put((byte) (enPassantSquare + 1));
+        out.putChar((char) halfmoveClock);
+        out.putChar((char) Math.min(getFullmoveNumber(), 0xFFFF));
+    }
+
+    /**
+     * Reads a game written by {@link #writeTo(ByteBuffer)}. The buffer must
+     * use the same byte order it was written with. As with FEN, an en passant
+     * square no pawn can just have passed over is dropped.
+     *
+     * @param in buffer positioned at the start of the game
+     * @return a new game at the position that was read, with an empty move
+     * history
+     * @throws IllegalArgumentException if the data is not a valid position
+     */
+    public static ChessGame readFrom(ByteBuffer in) {
+        ChessGame game = new ChessGame(ChessBoard.readFrom(in));
+        int flags = in.get();
+        int enPassant = (in.get() & 0xFF) - 1;
+        int halfmoveClock = in.getChar();
+        int fullmove = in.getChar();
+        TeamColor turn = TEAMS[flags & 1];
+        if (enPassant >= 0 && enPassant / 8 != enPassantRow(turn) || fullmove < 1) {
+            throw new IllegalArgumentException("Invalid game state");
+        }
+        game.teamTurn = turn;
+        game.castlingRights = (flags >>> 1) & ALL_CASTLING;
+        game.enPassantSquare = enPassant >= 0 && pawnJustPassed(game.board, turn, enPassant) ? enPassant : -1;
+        game.halfmoveClock = halfmoveClock;
+        game.setFullmoveNumber(fullmove);
+        return game;
+    }
+
+    /**
+     * @return number of bytes {@link #writeTo(ByteBuffer)} writes for this game
+     */
+    public int encodedSize() {
+        return board.encodedSize() + 6;
+    }
+
+    /**
+     * Sets up a game from Forsyth-Edwards Notation: piece placement, team to
+     * move, castling rights, en passant square and the two move clocks. The
+     * clocks may be left off, in which case they start at 0 and 1.
+     *
+     * @param fen the position in FEN
+     * @return a new game at that position, with an empty move history
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * Writes the game's current position in Forsyth-Edwards Notation
+     *
+     * @param out where to write the FEN
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void toFen(Appendable out) throws IOException {
+        Fen.write(this, out);
+    }
+
+    /**
+     * @return the game's current position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        try {
+            Fen.write(this, fen);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw", e);
+        }
+        return fen.toString();
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
-     * Set's which teams turn it is
+     * Set's which teams turn it is. Handing the turn over forfeits any en
+     * passant capture, since that is only open on the very next move.
      *
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        if (team != teamTurn) {
+            enPassantSquare = -1;
+        }
+        teamTurn = team;
     }
 
     /**
@@ -46,7 +224,147 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        int square = ChessBoard.square(startPosition);
+        int piece = board.pieceAt(square);
+        if (piece == ChessBoard.NO_PIECE) {
+            return null;
+        }
+        MoveList moves = new MoveList();
+        legalMoves(ChessBoard.colorOf(piece), 1L << square, -1L, moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Lazy version of {@link #validMoves(ChessPosition)}: moves are worked out
+     * as the stream is consumed, so taking only the first few or looking for
+     * one in particular costs less than listing them all. The game must not
+     * change while the stream is in use.
+     *
+     * @param startPosition the piece to get valid moves for
+     * @return stream of the piece's valid moves, empty if there is no piece
+     */
+    public Stream<ChessMove> streamValidMoves(ChessPosition startPosition) {
+        int square = ChessBoard.square(startPosition);
+        int piece = board.pieceAt(square);
+        if (piece == ChessBoard.NO_PIECE) {
+            return Stream.empty();
+        }
+        return stream(legalMoveIterator(ChessBoard.colorOf(piece), 1L << square));
+    }
+
+    /**
+     * Lazily walks every legal move for the team whose turn it is, one piece
+     * at a time. The game must not change while the iterator is in use.
+     *
+     * @return iterator over the legal moves
+     */
+    public Iterator<ChessMove> legalMoveIterator() {
+        return legalMoveIterator(teamTurn.ordinal(), -1L);
+    }
+
+    /**
+     * @return a stream over {@link #legalMoveIterator()}
+     */
+    public Stream<ChessMove> streamLegalMoves() {
+        return stream(legalMoveIterator());
+    }
+
+    private Iterator<ChessMove> legalMoveIterator(int color, long from) {
+        // En passant is only available to the team that moves next
+        int enPassant = color == teamTurn.ordinal() ? enPassantSquare : -1;
+        return new LegalMoveIterator(board, color, castlingRights, enPassant, from);
+    }
+
+    private static Stream<ChessMove> stream(Iterator<ChessMove> moves) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(moves,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Determines if a move can be played right now by the team whose turn it
+     * is. Only the moving piece's destinations are worked out.
+     *
+     * @param move the move to test
+     * @return True if the move is legal
+     */
+    public boolean isLegal(ChessMove move) {
+        if (!onBoard(move.getStartPosition()) || !onBoard(move.getEndPosition())) {
+            return false;
+        }
+        return isLegal(move.toPacked());
+    }
+
+    /**
+     * Checks whether a packed move ({@link PackedMove}) is legal for the team
+     * whose turn it is, for moves that may come from another position such as
+     * a transposition table or killer slot
+     *
+     * @param move packed move to check
+     * @return true if making the move follows the rules of chess
+     */
+    public boolean isLegal(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int piece = board.pieceAt(from);
+        if (piece == ChessBoard.NO_PIECE) {
+            return false;
+        }
+        // A pawn reaching the last rank has to name a piece, and no other move may
+        int promotion = PackedMove.promotion(move);
+        boolean promotes = ChessBoard.typeOf(piece) == ChessBoard.PAWN && MoveGenerator.isPromotionSquare(to);
+        if (promotes != (promotion >= 0) || promotion == ChessBoard.KING || promotion >= ChessBoard.PAWN) {
+            return false;
+        }
+        long targets = MoveGenerator.legalTargets(board, teamTurn.ordinal(), castlingRights, enPassantSquare, from);
+        return (targets & (1L << to)) != 0;
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    /**
+     * Adds every legal move for the team whose turn it is to a buffer of
+     * packed moves ({@link PackedMove})
+     *
+     * @param moves buffer the legal moves are appended to
+     */
+    public void legalMoves(MoveList moves) {
+        legalMoves(teamTurn.ordinal(), -1L, -1L, moves);
+    }
+
+    /**
+     * Adds the legal captures for the team whose turn it is, including en
+     * passant and capturing promotions, to a buffer of packed moves
+     *
+     * @param moves buffer the captures are appended to
+     */
+    public void legalCaptures(MoveList moves) {
+        int color = teamTurn.ordinal();
+        legalMoves(color, -1L, board.colors[1 - color], moves);
+    }
+
+    /**
+     * Adds the legal moves that capture nothing for the team whose turn it is,
+     * including castling and promotions onto empty squares, to a buffer of
+     * packed moves; together with {@link #legalCaptures(MoveList)} this covers
+     * every legal move exactly once
+     *
+     * @param moves buffer the quiet moves are appended to
+     */
+    public void legalQuietMoves(MoveList moves) {
+        legalMoves(teamTurn.ordinal(), -1L, ~board.occupied, moves);
+    }
+
+    /**
+     * @param from bitboard of the squares whose pieces should move
+     * @param to   bitboard of the squares moves may end on
+     */
+    private void legalMoves(int color, long from, long to, MoveList moves) {
+        // En passant is only available to the team that moves next
+        int enPassant = color == teamTurn.ordinal() ? enPassantSquare : -1;
+        MoveGenerator.legalMoves(board, color, castlingRights, enPassant, from, to, moves);
     }
 
     /**
@@ -56,7 +374,189 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        if (!onBoard(move.getStartPosition())) {
+            throw new InvalidMoveException("No piece at " + move.getStartPosition());
+        }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at " + move.getStartPosition());
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+        if (!isLegal(move)) {
+            throw new InvalidMoveException("Illegal move");
+        }
+        makeMove(move.toPacked());
+    }
+
+    /**
+     * Plays a packed move ({@link PackedMove}) on the board without checking that
+     * it is legal, recording it in the history so it can be taken back with
+     * {@link #unmakeMove()}. Captures, promotions, castling and en passant are
+     * all handled, and the turn passes to the other team. Any moves that were
+     * taken back and not yet redone are forgotten.
+     *
+     * @param move packed move to play; it must at least be pseudo-legal
+     */
+    public void makeMove(int move) {
+        play(move);
+        historySize = ply;
+    }
+
+    /**
+     * Plays again the next move that was taken back with {@link #unmakeMove()}
+     *
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public void redoMove() {
+        if (ply == historySize) {
+            throw new IllegalStateException("No move to redo");
+        }
+        play(historyMoves[ply]);
+    }
+
+    /**
+     * Takes back or redoes moves until the given number of plies have been
+     * played since the history began. Only the moves between the current ply
+     * and the target are replayed.
+     *
+     * @param target ply to go to, from 0 to {@link #getHistorySize()}
+     * @throws IllegalArgumentException if the history does not reach that ply
+     */
+    public void goToPly(int target) {
+        if (target < 0 || target > historySize) {
+            throw new IllegalArgumentException("Ply " + target + " is outside the history of " + historySize);
+        }
+        while (ply > target) {
+            unmakeMove();
+        }
+        while (ply < target) {
+            redoMove();
+        }
+    }
+
+    /**
+     * @return number of moves played since the history began, not counting
+     * moves that were taken back
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @return number of moves in the history, including moves that were taken
+     * back and can be redone
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * @param index ply of the move, from 0 to {@link #getHistorySize()} - 1
+     * @return the packed move ({@link PackedMove}) played at that ply
+     */
+    public int getHistoryMove(int index) {
+        Objects.checkIndex(index, historySize);
+        return historyMoves[index];
+    }
+
+    /**
+     * @return Zobrist key of the position before the move at a ply
+     */
+    long getHistoryKey(int index) {
+        return historyKeys[index];
+    }
+
+    private void play(int move) {
+        if (ply == historyMoves.length) {
+            historyMoves = Arrays.copyOf(historyMoves, ply * 2);
+            historyStates = Arrays.copyOf(historyStates, ply * 2);
+            historyKeys = Arrays.copyOf(historyKeys, ply * 2);
+        }
+        historyKeys[ply] = getZobristKey();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int promotion = PackedMove.promotion(move);
+        int piece = board.remove(from);
+        int color = ChessBoard.colorOf(piece);
+        int type = ChessBoard.typeOf(piece);
+
+        int captured = board.pieceAt(to);
+        int state = (castlingRights << 4) | ((enPassantSquare + 1) << 8) | (halfmoveClock << 16);
+        if (captured != ChessBoard.NO_PIECE) {
+            board.remove(to);
+        } else if (type == ChessBoard.PAWN && to == enPassantSquare && from % 8 != to % 8) {
+            captured = board.remove(to + (color == ChessBoard.WHITE ? -8 : 8));
+            state |= EN_PASSANT_CAPTURE;
+        }
+        historyMoves[ply] = (short) move;
+        historyStates[ply++] = state | (captured + 1);
+
+        board.put(to, promotion < 0 ? piece : ChessBoard.pieceIndex(color, promotion));
+        if (type == ChessBoard.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, false);
+        }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        enPassantSquare = type == ChessBoard.PAWN && Math.abs(to - from) == 16 ? (from + to) / 2 : -1;
+        // Pawn moves and captures can never be undone over the board
+        halfmoveClock = type == ChessBoard.PAWN || captured != ChessBoard.NO_PIECE
+                ? 0 : Math.min(halfmoveClock + 1, MAX_HALFMOVE_CLOCK);
+        teamTurn = TEAMS[1 - color];
+    }
+
+    /**
+     * Takes back the last move played, restoring the board, turn, castling
+     * rights and en passant square exactly. The move stays in the history and
+     * can be played again with {@link #redoMove()}.
+     *
+     * @throws IllegalStateException if no move has been played
+     */
+    public void unmakeMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int move = historyMoves[--ply];
+        int state = historyStates[ply];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+
+        int piece = board.remove(to);
+        int color = ChessBoard.colorOf(piece);
+        if (PackedMove.promotion(move) >= 0) {
+            piece = ChessBoard.pieceIndex(color, ChessBoard.PAWN);
+        }
+        board.put(from, piece);
+        if (ChessBoard.typeOf(piece) == ChessBoard.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, true);
+        }
+
+        int captured = (state & 0xF) - 1;
+        if ((state & EN_PASSANT_CAPTURE) != 0) {
+            board.put(to + (color == ChessBoard.WHITE ? -8 : 8), captured);
+        } else if (captured != ChessBoard.NO_PIECE) {
+            board.put(to, captured);
+        }
+
+        castlingRights = (state >>> 4) & 0xF;
+        enPassantSquare = ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = state >>> 16;
+        teamTurn = TEAMS[color];
+    }
+
+    /**
+     * Moves the rook that goes with a castling king move from its corner to
+     * the square the king passed over, or back again when undoing
+     */
+    private void moveCastlingRook(int kingFrom, int kingTo, boolean undo) {
+        int corner = kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+        int passed = (kingFrom + kingTo) / 2;
+        if (undo) {
+            board.put(corner, board.remove(passed));
+        } else {
+            board.put(passed, board.remove(corner));
+        }
     }
 
     /**
@@ -66,7 +566,14 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        int color = teamColor.ordinal();
+        for (long kings = board.pieces[ChessBoard.pieceIndex(color, ChessBoard.KING)]; kings != 0;
+             kings &= kings - 1) {
+            if (board.isAttacked(Long.numberOfTrailingZeros(kings), 1 - color)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -76,7 +583,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -87,16 +594,204 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
+    }
+
+    /**
+     * Determines if the given team has at least one legal move, stopping at
+     * the first one found instead of listing them all
+     *
+     * @param teamColor which team to look for a move for
+     * @return True if the specified team can make a move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        int color = teamColor.ordinal();
+        // En passant is only available to the team that moves next
+        int enPassant = color == teamTurn.ordinal() ? enPassantSquare : -1;
+        return MoveGenerator.hasLegalMove(board, color, enPassant);
+    }
+
+    /**
+     * Determines if the game is drawn, either because the current position
+     * has now occurred three times or by the fifty-move rule
+     *
+     * @return True if the game is drawn by repetition or the fifty-move rule
+     */
+    public boolean isDraw() {
+        return isDrawByFiftyMoveRule() || isDrawByRepetition();
+    }
+
+    /**
+     * Determines if the current position has occurred at least three times,
+     * with the same team to move, castling rights and en passant captures.
+     * Only the positions since the last capture or pawn move are compared,
+     * and by Zobrist key alone.
+     *
+     * @return True if the position has been repeated three times
+     */
+    public boolean isDrawByRepetition() {
+        return hasOccurredBefore(2);
+    }
+
+    /**
+     * Determines if the current position already occurred at least the given
+     * number of times earlier in the game. Search uses a single earlier
+     * occurrence to score a position as drawn.
+     *
+     * @param times number of earlier occurrences to look for, at least 1
+     * @return True if the position occurred that many times before
+     */
+    public boolean hasOccurredBefore(int times) {
+        if (halfmoveClock < 4) {
+            return false;
+        }
+        long key = getZobristKey();
+        int oldest = Math.max(0, ply - halfmoveClock);
+        int repeats = 0;
+        // Only positions with the same team to move can match
+        for (int i = ply - 4; i >= oldest; i -= 2) {
+            if (historyKeys[i] == key && ++repeats == times) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if fifty moves by each team have been played without a
+     * capture or pawn move
+     *
+     * @return True if the fifty-move rule applies
+     */
+    public boolean isDrawByFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return number of plies since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up
+     * after each black move
+     */
+    public int getFullmoveNumber() {
+        return (startPly + ply) / 2 + 1;
+    }
+
+    /**
+     * @param halfmoveClock number of plies since the last capture or pawn move
+     */
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = Math.min(halfmoveClock, MAX_HALFMOVE_CLOCK);
+    }
+
+    /**
+     * Gets the Zobrist key of the whole game state: the pieces, the team to
+     * move, castling rights and any en passant square that can actually be
+     * captured on
+     *
+     * @return a 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey() ^ Zobrist.castling(castlingRights);
+        int color = teamTurn.ordinal();
+        if (color == ChessBoard.BLACK) {
+            key ^= Zobrist.SIDE;
+        }
+        if (enPassantSquare >= 0 && (Attacks.pawn(1 - color, enPassantSquare)
+                & board.pieces[ChessBoard.pieceIndex(color, ChessBoard.PAWN)]) != 0) {
+            key ^= Zobrist.enPassant(enPassantSquare % 8);
+        }
+        return key;
     }
 
     /**
      * Sets this game's chessboard with a given board
+     * <p>
+     * Castling rights are granted for every king and rook still standing on
+     * their starting squares, and the move history is cleared.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        castlingRights = startingCastlingRights(ChessBoard.WHITE, WHITE_KINGSIDE, WHITE_QUEENSIDE)
+                | startingCastlingRights(ChessBoard.BLACK, BLACK_KINGSIDE, BLACK_QUEENSIDE);
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        startPly = 0;
+        ply = 0;
+        historySize = 0;
+    }
+
+    /**
+     * @param fullmoveNumber full move number to count on from, starting at 1
+     */
+    void setFullmoveNumber(int fullmoveNumber) {
+        startPly = 2 * (fullmoveNumber - 1) + teamTurn.ordinal() - ply;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return square a pawn may capture en passant on, or -1
+     */
+    int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @param turn team to move
+     * @return row index (0 for rank 1) of the squares the other team's pawns
+     * skip over with a double step
+     */
+    static int enPassantRow(TeamColor turn) {
+        return turn == TeamColor.WHITE ? 5 : 2;
+    }
+
+    /**
+     * Checks that an en passant square read from outside fits the board: the
+     * other team's pawn stands just past it, and it and the square the pawn
+     * started from are empty. Generating an en passant capture without that
+     * pawn would corrupt the board.
+     *
+     * @param turn   team to move
+     * @param square en passant square, on the row {@link #enPassantRow} gives
+     * @return true if a pawn can just have double stepped over the square
+     */
+    static boolean pawnJustPassed(ChessBoard board, TeamColor turn, int square) {
+        int forward = turn == TeamColor.WHITE ? -8 : 8;
+        int enemyPawn = ChessBoard.pieceIndex(1 - turn.ordinal(), ChessBoard.PAWN);
+        return board.pieceAt(square + forward) == enemyPawn
+                && board.pieceAt(square) == ChessBoard.NO_PIECE
+                && board.pieceAt(square - forward) == ChessBoard.NO_PIECE;
+    }
+
+    /**
+     * @param enPassantSquare square a pawn may capture en passant on, or -1
+     */
+    void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    private int startingCastlingRights(int color, int kingside, int queenside) {
+        int backRank = color == ChessBoard.WHITE ? 0 : 56;
+        if (board.pieceAt(backRank + 4) != ChessBoard.pieceIndex(color, ChessBoard.KING)) {
+            return 0;
+        }
+        int rook = ChessBoard.pieceIndex(color, ChessBoard.ROOK);
+        return (board.pieceAt(backRank + 7) == rook ? kingside : 0)
+                | (board.pieceAt(backRank) == rook ? queenside : 0);
     }
 
     /**
@@ -105,6 +800,6 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
     }
 }
@@ -44,6 +44,21 @@ public class ChessMove {
         return promotionPiece;
     }
 
+    /**
+     * @return this move in the 16-bit packed form described by {@link PackedMove}
+     */
+    public int toPacked() {
+        return PackedMove.fromChessMove(this);
+    }
+
+    /**
+     * @param move a move in the packed form described by {@link PackedMove}
+     * @return the same move as a ChessMove
+     */
+    public static ChessMove fromPacked(int move) {
+        return PackedMove.toChessMove(move);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
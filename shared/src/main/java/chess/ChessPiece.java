@@ -1,9 +1,6 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
-import static java.lang.Math.abs;
 
 /**
  * Represents a single chess piece
@@ -13,13 +10,43 @@ import static java.lang.Math.abs;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[ChessBoard.PIECE_COUNT];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     public final ChessGame.TeamColor pieceColor;
     public final PieceType type;
+    private final int hash;
 
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
+        this.hash = pieceColor == null || type == null ? 0 : ChessBoard.pieceIndex(pieceColor, type) + 1;
+    }
+
+    /**
+     * Returns the shared instance for a color and type. Pieces are immutable,
+     * so one instance per combination can be handed out everywhere.
+     *
+     * @return one of the twelve cached pieces
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @param piece piece index ({@link ChessBoard#pieceIndex})
+     * @return the shared instance for that piece index
+     */
+    static ChessPiece of(int piece) {
+        return PIECES[piece];
     }
 
     /**
@@ -56,200 +83,21 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        MoveCalc listMoves = new MoveCalc (board, myPosition, this);
-        return listMoves.listMoves ();
+        MoveList moves = new MoveList();
+        pieceMoves(board, myPosition, moves);
+        return moves.toChessMoves();
     }
 
-    private class MoveCalc {
-        ChessBoard board;
-        ChessPosition myPosition;
-        int curRow;
-        int curCol;
-        ChessPiece myPiece;
-
-        public MoveCalc(ChessBoard board, ChessPosition myPosition, ChessPiece myPiece) {
-            this.board = board;
-            this.myPosition = myPosition;
-            this.myPiece = myPiece;
-            this.curCol = myPosition.getColumn();
-            this.curRow = myPosition.getRow();
-        }
-
-        public Collection<ChessMove> listMoves(){
-            return switch (myPiece.getPieceType()) {
-                case PieceType.KING -> kingMoves();
-                case PieceType.QUEEN -> queenMoves();
-                case PieceType.BISHOP -> bishopMoves();
-                case PieceType.KNIGHT -> knightMoves();
-                case PieceType.ROOK -> rookMoves();
-                case PieceType.PAWN -> pawnMoves();
-            };
-        }
-
-        public Collection<ChessMove> pawnMoves(){
-            Collection<ChessMove> pawnList = new ArrayList<>();
-            int row = curRow;
-            int col = curCol;
-            if (myPiece.getTeamColor()== ChessGame.TeamColor.BLACK) {
-                row -= 1;
-            } else {
-                row += 1;
-            }
-            ChessPosition newPos = new ChessPosition(row, col);
-            checkPawnMove (row, col, newPos, pawnList);
-            return pawnList;
-        }
-
-        private void checkPawnMove(int row, int col, ChessPosition newPos, Collection<ChessMove> pawnList) {
-            if (board.getPiece(newPos) == null) {
-                if (row == 1 || row == 8) {
-                    promotePawn(pawnList, newPos);
-                } else if (curRow == 2 || curRow == 7) {
-                    pawnList.add(new ChessMove(myPosition, newPos, null));
-                    int i;
-                    if (myPiece.getTeamColor()== ChessGame.TeamColor.BLACK) {
-                        i = -1;
-                    } else {
-                        i = 1;
-                    }
-                    int doubleRow = row + i;
-                    newPos = new ChessPosition(doubleRow, col);
-                    if(board.getPiece(newPos) == null){
-                        pawnList.add(new ChessMove(myPosition, newPos, null));
-                    }
-                } else {
-                    pawnList.add(new ChessMove(myPosition, newPos, null));
-                }
-            }
-            for (int i = -1; i <= 1; i += 2) {
-                int newCol = col + i;
-                if (newCol >= 1 && newCol <= 8) {
-                    ChessPosition diagonalPos = new ChessPosition(row, newCol);
-                    ChessPiece targetPiece = board.getPiece(diagonalPos);
-                    if (targetPiece != null && targetPiece.getTeamColor() != myPiece.getTeamColor()) {
-                        if (row == 1 || row == 8) {
-                            promotePawn(pawnList, diagonalPos);
-                        } else {
-                            pawnList.add(new ChessMove(myPosition, diagonalPos, null));
-                        }
-                    }
-                }
-            }
-        }
-
-        private void promotePawn(Collection<ChessMove> pawnList, ChessPosition newPos) {
-            pawnList.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-            pawnList.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-            pawnList.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-            pawnList.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-        }
-
-        public Collection<ChessMove> kingMoves(){
-            Collection<ChessMove> kingList = new ArrayList<>();
-            int row;
-            int col;
-            for (int i = -1; i <= 1; i++) {
-                row = curRow + i;
-                for (int x = -1; x <= 1; x++) {
-                    col = curCol + x;
-                    if(row == curRow && col == curCol) {
-                        continue;
-                    } else if (!checkSpot(row, col, kingList)) {
-                        break;
-                    }
-                }
-            }
-            return kingList;
-        }
-
-        public Collection<ChessMove> queenMoves(){
-            Collection<ChessMove> queenList = new ArrayList<>();
-            queenList.addAll(rookMoves());
-            queenList.addAll(bishopMoves());
-            return queenList;
-        }
-
-        public Collection<ChessMove> bishopMoves(){
-            Collection<ChessMove> bishopList = new ArrayList<>();
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow + i, curCol + i, bishopList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow - i, curCol + i, bishopList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow - i, curCol - i, bishopList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow + i, curCol - i, bishopList)){
-                    break;
-                }
-            }
-            return bishopList;
-        }
-
-        public Collection<ChessMove> knightMoves(){
-            Collection<ChessMove> knightList = new ArrayList<>();
-            int[] row = {-2,-1,1,2};
-            int[] col = {-2,-1,1,2};
-            for (int i : row) {
-                for (int x : col) {
-                    if (abs(i) == abs(x)){
-                        continue;
-                    } else if (!checkSpot(curRow + i, curCol + x, knightList)){
-                        continue;
-                    }
-                }
-            }
-            return knightList;
-        }
-
-        public Collection<ChessMove> rookMoves(){
-            Collection<ChessMove> rookList = new ArrayList<>();
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow + i, curCol, rookList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow - i, curCol, rookList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow, curCol + i, rookList)){
-                    break;
-                }
-            }
-            for (int i = 1; i <= 8; i++) {
-                if (!checkSpot(curRow, curCol - i, rookList)){
-                    break;
-                }
-            }
-            return rookList;
-        }
-
-        public boolean checkSpot( int row, int col, Collection<ChessMove> lst) {
-            if (row < 1 || row > 8 || col < 1 || col > 8) {
-                return false;
-            }
-            ChessPosition newPos = new ChessPosition(row, col);
-            if (board.getPiece(newPos) == null) {
-                lst.add(new ChessMove(myPosition, newPos, null));
-                return true;
-            } else if (board.getPiece(newPos).getTeamColor() != myPiece.getTeamColor()) {
-                lst.add(new ChessMove(myPosition, newPos, null));
-                return false;
-            } else {
-                return false;
-            }
-        }
+    /**
+     * Same as {@link #pieceMoves(ChessBoard, ChessPosition)}, but appends the
+     * moves to a caller-supplied buffer as packed ints instead of allocating
+     * a collection of ChessMove objects
+     *
+     * @param moves buffer the packed moves are appended to
+     */
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, MoveList moves) {
+        MoveGenerator.pieceMoves(board, ChessBoard.square(myPosition),
+                ChessBoard.pieceIndex(pieceColor, type), moves);
     }
 
     @Override
@@ -259,6 +107,9 @@ public class ChessPiece {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -268,6 +119,6 @@ public class ChessPiece {
 
     @Override
     public int hashCode(){
-        return Objects.hash(pieceColor, type);
+        return hash;
     }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -9,12 +7,45 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
-    int row;
-    int col;
+
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
+    final int row;
+    final int col;
+    private final int hash;
 
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
+        this.hash = 31 * row + col;
+    }
+
+    /**
+     * Returns the shared instance for an on-board square, so hot paths don't
+     * allocate a new position per square examined
+     *
+     * @return a cached position for rows and columns 1-8, or a new position
+     * for anything off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return the shared instance for that square
+     */
+    static ChessPosition of(int square) {
+        return SQUARES[square];
     }
 
     /**
@@ -34,11 +65,14 @@ public class ChessPosition {
     }
 
     public ChessPosition move(int rowOffset, int colOffset) {
-        return new ChessPosition(row + rowOffset + 1, col + colOffset + 1);
+        return of(row + rowOffset + 1, col + colOffset + 1);
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -48,6 +82,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return hash;
     }
 }
@@ -0,0 +1,261 @@
+package chess;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}.
+ * Parsing walks the text once and writing goes straight to the target,
+ * without building intermediate strings.
+ */
+final class Fen {
+
+    /**
+     * FEN letters for black pieces, indexed by piece type code; white uses
+     * the upper case letter
+     */
+    private static final String PIECE_LETTERS = "kqbnrp";
+
+    private final CharSequence text;
+    private int index;
+
+    private Fen(CharSequence text) {
+        this.text = text;
+    }
+
+    static ChessGame parse(CharSequence fen) {
+        return new Fen(fen).parseGame();
+    }
+
+    static void write(ChessGame game, Appendable out) throws IOException {
+        ChessBoard board = game.getBoard();
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = board.pieceAt(row * 8 + col);
+                if (piece == ChessBoard.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(ChessBoard.typeOf(piece));
+                out.append(ChessBoard.colorOf(piece) == ChessBoard.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                out.append('/');
+            }
+        }
+
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = game.getCastlingRights();
+        if (rights == 0) {
+            out.append('-');
+        } else {
+            appendIf(out, rights, ChessGame.WHITE_KINGSIDE, 'K');
+            appendIf(out, rights, ChessGame.WHITE_QUEENSIDE, 'Q');
+            appendIf(out, rights, ChessGame.BLACK_KINGSIDE, 'k');
+            appendIf(out, rights, ChessGame.BLACK_QUEENSIDE, 'q');
+        }
+
+        out.append(' ');
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant < 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+        }
+        out.append(' ');
+        appendNumber(out, game.getHalfmoveClock());
+        out.append(' ');
+        appendNumber(out, game.getFullmoveNumber());
+    }
+
+    /**
+     * Writes a non-negative number in decimal without building a string
+     */
+    private static void appendNumber(Appendable out, int value) throws IOException {
+        if (out instanceof StringBuilder builder) {
+            builder.append(value);
+            return;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static void appendIf(Appendable out, int rights, int right, char letter) throws IOException {
+        if ((rights & right) != 0) {
+            out.append(letter);
+        }
+    }
+
+    private ChessGame parseGame() {
+        skipSpaces();
+        ChessBoard board = parsePlacement();
+        ChessGame game = new ChessGame(board);
+
+        expectSpace();
+        char side = next();
+        if (side != 'w' && side != 'b') {
+            throw error("Expected w or b for the team to move");
+        }
+        game.setTeamTurn(side == 'w' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+
+        expectSpace();
+        game.setCastlingRights(parseCastling());
+        expectSpace();
+        game.setEnPassantSquare(parseEnPassant(board, game.getTeamTurn()));
+
+        skipSpaces();
+        if (index < text.length()) {
+            game.setHalfmoveClock(parseNumber());
+            expectSpace();
+            int fullmove = parseNumber();
+            if (fullmove < 1) {
+                throw error("Full move number must be at least 1");
+            }
+            game.setFullmoveNumber(fullmove);
+            skipSpaces();
+        } else {
+            // Without clocks, the game starts on move 1 with the given team to move
+            game.setFullmoveNumber(1);
+        }
+        if (index < text.length()) {
+            throw error("Unexpected text after the move clocks");
+        }
+        return game;
+    }
+
+    private ChessBoard parsePlacement() {
+        ChessBoard board = new ChessBoard();
+        int row = 7;
+        int col = 0;
+        while (true) {
+            char c = next();
+            if (c == '/' || Character.isWhitespace(c)) {
+                if (col != 8) {
+                    throw error("Rank " + (row + 1) + " does not have 8 squares");
+                }
+                if (c != '/') {
+                    if (row != 0) {
+                        throw error("Expected 8 ranks");
+                    }
+                    index--;
+                    return board;
+                }
+                if (--row < 0) {
+                    throw error("Expected 8 ranks");
+                }
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int type = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (type < 0) {
+                    throw error("Unknown piece '" + c + "'");
+                }
+                if (col >= 8) {
+                    throw error("Rank " + (row + 1) + " does not have 8 squares");
+                }
+                int color = Character.isUpperCase(c) ? ChessBoard.WHITE : ChessBoard.BLACK;
+                board.put(row * 8 + col++, ChessBoard.pieceIndex(color, type));
+            }
+            if (col > 8) {
+                throw error("Rank " + (row + 1) + " does not have 8 squares");
+            }
+        }
+    }
+
+    private int parseCastling() {
+        if (peek() == '-') {
+            index++;
+            return 0;
+        }
+        int rights = 0;
+        while (index < text.length() && !Character.isWhitespace(text.charAt(index))) {
+            rights |= switch (next()) {
+                case 'K' -> ChessGame.WHITE_KINGSIDE;
+                case 'Q' -> ChessGame.WHITE_QUEENSIDE;
+                case 'k' -> ChessGame.BLACK_KINGSIDE;
+                case 'q' -> ChessGame.BLACK_QUEENSIDE;
+                default -> throw error("Bad castling rights");
+            };
+        }
+        if (rights == 0) {
+            throw error("Bad castling rights");
+        }
+        return rights;
+    }
+
+    /**
+     * @return the en passant square, or -1 if there is none or no pawn can
+     * have just double stepped over it
+     */
+    private int parseEnPassant(ChessBoard board, ChessGame.TeamColor turn) {
+        char file = next();
+        if (file == '-') {
+            return -1;
+        }
+        char rank = next();
+        if (file < 'a' || file > 'h' || rank - '1' != ChessGame.enPassantRow(turn)) {
+            throw error("Bad en passant square");
+        }
+        int square = ChessBoard.square(rank - '0', file - 'a' + 1);
+        return ChessGame.pawnJustPassed(board, turn, square) ? square : -1;
+    }
+
+    private int parseNumber() {
+        int start = index;
+        int value = 0;
+        while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            value = value * 10 + (text.charAt(index++) - '0');
+            if (value > 1_000_000) {
+                throw error("Number is too large");
+            }
+        }
+        if (index == start) {
+            throw error("Expected a number");
+        }
+        return value;
+    }
+
+    private void expectSpace() {
+        if (index >= text.length() || !Character.isWhitespace(text.charAt(index))) {
+            throw error("Expected a space");
+        }
+        skipSpaces();
+    }
+
+    private void skipSpaces() {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+    }
+
+    private char peek() {
+        if (index >= text.length()) {
+            throw error("Unexpected end of FEN");
+        }
+        return text.charAt(index);
+    }
+
+    private char next() {
+        char c = peek();
+        index++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at index " + index + " in FEN: " + text);
+    }
+}
@@ -5,6 +5,8 @@ package chess;
  */
 public class InvalidMoveException extends Exception {
 
+    private static final long serialVersionUID = 1L;
+
     public InvalidMoveException() {}
 
     public InvalidMoveException(String message) {
@@ -0,0 +1,65 @@
+package chess;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the legal moves of one side lazily, a piece at a time: the legal
+ * destinations of the next piece are only worked out once the moves of the
+ * previous piece have all been taken. The position must not change while
+ * the iterator is in use.
+ */
+final class LegalMoveIterator implements Iterator<ChessMove> {
+
+    private static final int[] PROMOTIONS = {ChessBoard.QUEEN, ChessBoard.ROOK, ChessBoard.BISHOP,
+            ChessBoard.KNIGHT};
+
+    private final ChessBoard board;
+    private final int color;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private long remaining;
+    private int from;
+    private boolean pawn;
+    private long targets;
+    private int promotion;
+
+    /**
+     * @param from bitboard of the squares whose pieces should move
+     */
+    LegalMoveIterator(ChessBoard board, int color, int castlingRights, int enPassantSquare, long from) {
+        this.board = board;
+        this.color = color;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        remaining = board.colors[color] & from;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (targets == 0 && remaining != 0) {
+            from = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            pawn = ChessBoard.typeOf(board.pieceAt(from)) == ChessBoard.PAWN;
+            targets = MoveGenerator.legalTargets(board, color, castlingRights, enPassantSquare, from);
+        }
+        return targets != 0;
+    }
+
+    @Override
+    public ChessMove next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int to = Long.numberOfTrailingZeros(targets);
+        int type = -1;
+        if (pawn && MoveGenerator.isPromotionSquare(to)) {
+            type = PROMOTIONS[promotion++];
+        }
+        if (type < 0 || promotion == PROMOTIONS.length) {
+            promotion = 0;
+            targets &= targets - 1;
+        }
+        return PackedMove.toChessMove(PackedMove.encode(from, to, type));
+    }
+}
@@ -0,0 +1,374 @@
+package chess;
+
+import static chess.ChessBoard.*;
+
+/**
+ * Generates moves straight into a {@link MoveList} from the board's bitboards
+ * and the {@link Attacks} tables. Nothing here allocates.
+ * <p>
+ * {@link #legalMoves} emits only legal moves: checkers and pinned pieces are
+ * found once per call, so no move has to be played out to see whether it
+ * leaves the king in check.
+ */
+final class MoveGenerator {
+
+    private static final long RANK_1 = 0x00000000000000FFL;
+    private static final long RANK_8 = 0xFF00000000000000L;
+
+    // Squares between king and rook on the first rank, and the squares the king crosses
+    private static final long KINGSIDE_EMPTY = 0x60L;
+    private static final long QUEENSIDE_EMPTY = 0x0EL;
+    private static final long KINGSIDE_SAFE = 0x60L;
+    private static final long QUEENSIDE_SAFE = 0x0CL;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds every move a piece could make from a square, without considering
+     * whether the move leaves its own king in danger
+     *
+     * @param piece piece index ({@link ChessBoard#pieceIndex}) of the moving piece
+     */
+    static void pieceMoves(ChessBoard board, int square, int piece, MoveList moves) {
+        int color = colorOf(piece);
+        long targets = ~board.colors[color];
+        switch (typeOf(piece)) {
+            case PAWN -> pawnMoves(board, square, color, -1L, moves);
+            default -> addMoves(square, attacks(typeOf(piece), square, board.occupied) & targets, moves);
+        }
+    }
+
+    /**
+     * Adds every legal move for one side, including castling and en passant
+     *
+     * @param color           side to generate moves for
+     * @param castlingRights  castling rights bit set, as kept by {@link ChessGame}
+     * @param enPassantSquare square a pawn may capture en passant on, or -1
+     * @param from            bitboard of the squares whose pieces should move;
+     *                        pass -1 for every piece
+     * @param to              bitboard of the squares moves may end on; pass
+     *                        -1 for all, the enemy pieces for captures only,
+     *                        or the empty squares for quiet moves only. En
+     *                        passant is filtered by the captured pawn's
+     *                        square, so it counts as a capture.
+     */
+    static void legalMoves(ChessBoard board, int color, int castlingRights, int enPassantSquare,
+                           long from, long to, MoveList moves) {
+        long own = board.colors[color];
+        long kingBit = board.pieces[pieceIndex(color, KING)];
+        if (kingBit == 0) {
+            // Without a king nothing can be illegal
+            for (long pieces = own & from; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                int type = typeOf(board.pieceAt(square));
+                if (type == PAWN) {
+                    pawnMoves(board, square, color, to, moves);
+                } else {
+                    addMoves(square, attacks(type, square, board.occupied) & ~own & to, moves);
+                }
+            }
+            enPassantMoves(board, color, enPassantSquare, from, to, moves);
+            return;
+        }
+
+        int king = Long.numberOfTrailingZeros(kingBit);
+        int enemy = 1 - color;
+        long occupied = board.occupied;
+        long checkers = board.attackersTo(king, enemy, occupied);
+        if ((kingBit & from) != 0) {
+            // The king may not step along a checking ray, so sliders see through it
+            long danger = board.attacks(enemy, occupied ^ kingBit);
+            addMoves(king, Attacks.king(king) & ~own & ~danger & to, moves);
+            if (checkers == 0) {
+                castlingMoves(board, color, castlingRights, danger, to, moves);
+            }
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            // Double check: only the king can move
+            return;
+        }
+
+        // In check, every other move has to capture the checker or block it
+        long allowed = (checkers == 0 ? ~own : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers)))
+                & to;
+        long pinned = pinnedPieces(board, color, king);
+        for (long pieces = own & ~kingBit & from; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long targets = allowed;
+            if ((pinned & (1L << square)) != 0) {
+                targets &= Attacks.line(king, square);
+            }
+            int type = typeOf(board.pieceAt(square));
+            if (type == PAWN) {
+                pawnMoves(board, square, color, targets, moves);
+            } else {
+                addMoves(square, attacks(type, square, occupied) & ~own & targets, moves);
+            }
+        }
+        enPassantMoves(board, color, enPassantSquare, from, to, moves);
+    }
+
+    /**
+     * Finds the squares one piece may legally move to, including castling and
+     * en passant, without generating the moves of any other piece
+     *
+     * @param color           side the piece must belong to
+     * @param castlingRights  castling rights bit set, as kept by {@link ChessGame}
+     * @param enPassantSquare square a pawn may capture en passant on, or -1
+     * @param square          square of the piece to move
+     * @return bitboard of destination squares; empty if the square does not
+     * hold a piece of that color
+     */
+    static long legalTargets(ChessBoard board, int color, int castlingRights, int enPassantSquare, int square) {
+        int piece = board.pieceAt(square);
+        if (piece == NO_PIECE || colorOf(piece) != color) {
+            return 0L;
+        }
+        long own = board.colors[color];
+        long occupied = board.occupied;
+        int type = typeOf(piece);
+        long reach = type == PAWN ? pawnTargets(board, square, color) : attacks(type, square, occupied) & ~own;
+        long enPassant = enPassantCapturers(board, color, enPassantSquare, 1L << square) != 0
+                ? 1L << enPassantSquare : 0L;
+        long kingBit = board.pieces[pieceIndex(color, KING)];
+        if (kingBit == 0) {
+            return reach | enPassant;
+        }
+
+        int king = Long.numberOfTrailingZeros(kingBit);
+        int enemy = 1 - color;
+        long checkers = board.attackersTo(king, enemy, occupied);
+        if (square == king) {
+            long danger = board.attacks(enemy, occupied ^ kingBit);
+            long targets = reach & ~danger;
+            return checkers == 0 ? targets | castlingTargets(board, color, castlingRights, danger) : targets;
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return 0L;
+        }
+        long targets = checkers == 0 ? reach : reach & (checkers | Attacks.between(king,
+                Long.numberOfTrailingZeros(checkers)));
+        if ((pinnedPieces(board, color, king) & (1L << square)) != 0) {
+            targets &= Attacks.line(king, square);
+        }
+        return targets | enPassant;
+    }
+
+    /**
+     * Whether one side has any legal move at all. Works like {@link #legalMoves}
+     * but only computes target bitboards, returning at the first piece that has
+     * a legal one, so nothing is generated or allocated.
+     *
+     * @param color           side to look for a move for
+     * @param enPassantSquare square a pawn may capture en passant on, or -1
+     */
+    static boolean hasLegalMove(ChessBoard board, int color, int enPassantSquare) {
+        long own = board.colors[color];
+        long kingBit = board.pieces[pieceIndex(color, KING)];
+        int enemy = 1 - color;
+        long occupied = board.occupied;
+        long allowed = ~own;
+        long pinned = 0L;
+        int king = Long.numberOfTrailingZeros(kingBit);
+        if (kingBit != 0) {
+            // Castling is never the only legal move: the king could also step
+            // onto the square it would pass over
+            long danger = board.attacks(enemy, occupied ^ kingBit);
+            if ((Attacks.king(king) & ~own & ~danger) != 0) {
+                return true;
+            }
+            long checkers = board.attackersTo(king, enemy, occupied);
+            if ((checkers & (checkers - 1)) != 0) {
+                return false;
+            }
+            if (checkers != 0) {
+                allowed = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(board, color, king);
+        }
+
+        for (long pieces = own & ~kingBit; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long targets = allowed;
+            if ((pinned & (1L << square)) != 0) {
+                targets &= Attacks.line(king, square);
+            }
+            int type = typeOf(board.pieceAt(square));
+            long reach = type == PAWN ? pawnTargets(board, square, color) : attacks(type, square, occupied) & ~own;
+            if ((reach & targets) != 0) {
+                return true;
+            }
+        }
+        return enPassantCapturers(board, color, enPassantSquare, -1L) != 0;
+    }
+
+    /**
+     * @return bitboard of the pieces of a color that are pinned to their king
+     * by an enemy rook, bishop or queen
+     */
+    static long pinnedPieces(ChessBoard board, int color, int king) {
+        int enemy = 1 - color;
+        long enemies = board.colors[enemy];
+        long queens = board.pieces[pieceIndex(enemy, QUEEN)];
+        // Look past our own pieces for enemy sliders lined up on the king
+        long snipers = (Attacks.rook(king, enemies) & (board.pieces[pieceIndex(enemy, ROOK)] | queens))
+                | (Attacks.bishop(king, enemies) & (board.pieces[pieceIndex(enemy, BISHOP)] | queens));
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & board.occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & board.colors[color];
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Adds en passant captures onto the given square, if it is in {@code to}.
+     * The square itself is empty, so a captures-only mask of enemy pieces
+     * has to name it explicitly.
+     */
+    private static void enPassantMoves(ChessBoard board, int color, int enPassantSquare, long from, long to,
+                                       MoveList moves) {
+        if (enPassantSquare < 0 || (to & (1L << (enPassantSquare + (color == WHITE ? -8 : 8)))) == 0) {
+            return;
+        }
+        long pawns = enPassantCapturers(board, color, enPassantSquare, from);
+        for (; pawns != 0; pawns &= pawns - 1) {
+            moves.add(PackedMove.encode(Long.numberOfTrailingZeros(pawns), enPassantSquare, -1));
+        }
+    }
+
+    /**
+     * Finds the pawns that may legally capture en passant. Both pawns leave
+     * their squares at once, so each capture is checked against the king
+     * directly rather than through the pin and check masks.
+     *
+     * @return bitboard of the capturing pawns, within the squares in {@code from}
+     */
+    private static long enPassantCapturers(ChessBoard board, int color, int enPassantSquare, long from) {
+        if (enPassantSquare < 0) {
+            return 0L;
+        }
+        int enemy = 1 - color;
+        long capturedBit = 1L << (enPassantSquare + (color == WHITE ? -8 : 8));
+        long kingBit = board.pieces[pieceIndex(color, KING)];
+        long pawns = Attacks.pawn(enemy, enPassantSquare) & board.pieces[pieceIndex(color, PAWN)] & from;
+        long legal = 0L;
+        for (; pawns != 0; pawns &= pawns - 1) {
+            long pawnBit = pawns & -pawns;
+            if (kingBit != 0) {
+                long occupied = (board.occupied ^ pawnBit ^ capturedBit) | (1L << enPassantSquare);
+                long attackers = board.attackersTo(Long.numberOfTrailingZeros(kingBit), enemy, occupied);
+                if ((attackers & ~capturedBit) != 0) {
+                    continue;
+                }
+            }
+            legal |= pawnBit;
+        }
+        return legal;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        return switch (type) {
+            case KING -> Attacks.king(square);
+            case QUEEN -> Attacks.queen(square, occupied);
+            case BISHOP -> Attacks.bishop(square, occupied);
+            case KNIGHT -> Attacks.knight(square);
+            default -> Attacks.rook(square, occupied);
+        };
+    }
+
+    private static void castlingMoves(ChessBoard board, int color, int rights, long attacked, long to,
+                                      MoveList moves) {
+        long targets = castlingTargets(board, color, rights, attacked) & to;
+        int kingSquare = color == WHITE ? 4 : 60;
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(PackedMove.encode(kingSquare, Long.numberOfTrailingZeros(targets), -1));
+        }
+    }
+
+    /**
+     * Finds the squares a king may castle to: it must still have the right,
+     * the rook must be in its corner, the squares between them must be empty,
+     * and the king may not be in check or pass over or land on an attacked square
+     *
+     * @param rights   castling rights bit set, as kept by {@link ChessGame}
+     * @param attacked every square the other side attacks
+     * @return bitboard of the king's castling destinations
+     */
+    private static long castlingTargets(ChessBoard board, int color, int rights, long attacked) {
+        int shift = color == WHITE ? 0 : 56;
+        int kingSquare = shift + 4;
+        int kingside = color == WHITE ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+        int queenside = color == WHITE ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || board.pieceAt(kingSquare) != pieceIndex(color, KING)) {
+            return 0L;
+        }
+        long rooks = board.pieces[pieceIndex(color, ROOK)];
+        long targets = 0L;
+        if ((rights & kingside) != 0 && (rooks & (1L << (shift + 7))) != 0
+                && (board.occupied & (KINGSIDE_EMPTY << shift)) == 0
+                && (attacked & (KINGSIDE_SAFE << shift)) == 0) {
+            targets |= 1L << (kingSquare + 2);
+        }
+        if ((rights & queenside) != 0 && (rooks & (1L << shift)) != 0
+                && (board.occupied & (QUEENSIDE_EMPTY << shift)) == 0
+                && (attacked & (QUEENSIDE_SAFE << shift)) == 0) {
+            targets |= 1L << (kingSquare - 2);
+        }
+        return targets;
+    }
+
+    /**
+     * @param targets squares the pawn is allowed to end up on
+     */
+    private static void pawnMoves(ChessBoard board, int square, int color, long targets, MoveList moves) {
+        for (long to = pawnTargets(board, square, color) & targets; to != 0; to &= to - 1) {
+            addPawnMove(square, Long.numberOfTrailingZeros(to), moves);
+        }
+    }
+
+    /**
+     * @return the squares a pawn can push or capture to, en passant aside
+     */
+    private static long pawnTargets(ChessBoard board, int square, int color) {
+        long captures = Attacks.pawn(color, square) & board.colors[1 - color];
+        int forward = color == WHITE ? 8 : -8;
+        int oneStep = square + forward;
+        if (oneStep < 0 || oneStep >= 64 || (board.occupied & (1L << oneStep)) != 0) {
+            return captures;
+        }
+        long pushes = 1L << oneStep;
+        int startRank = color == WHITE ? 1 : 6;
+        if (square / 8 == startRank && (board.occupied & (1L << (oneStep + forward))) == 0) {
+            pushes |= 1L << (oneStep + forward);
+        }
+        return pushes | captures;
+    }
+
+    /**
+     * @return whether a pawn moving to the square has to promote
+     */
+    static boolean isPromotionSquare(int square) {
+        return ((RANK_1 | RANK_8) & (1L << square)) != 0;
+    }
+
+    private static void addPawnMove(int from, int to, MoveList moves) {
+        if (isPromotionSquare(to)) {
+            moves.add(PackedMove.encode(from, to, QUEEN));
+            moves.add(PackedMove.encode(from, to, ROOK));
+            moves.add(PackedMove.encode(from, to, BISHOP));
+            moves.add(PackedMove.encode(from, to, KNIGHT));
+        } else {
+            moves.add(PackedMove.encode(from, to, -1));
+        }
+    }
+
+    private static void addMoves(int from, long targets, MoveList moves) {
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(PackedMove.encode(from, Long.numberOfTrailingZeros(targets), -1));
+        }
+    }
+}
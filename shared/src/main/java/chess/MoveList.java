@@ -0,0 +1,85 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable buffer of moves packed into plain ints ({@link PackedMove}), so
+ * move generation can run without allocating a {@link ChessMove} (or anything
+ * else) per move.
+ */
+public class MoveList {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Appends a packed move, growing the buffer only if it is full
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(1, size * 2));
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @return the packed move at the given index
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Overwrites the packed move at an index already in the list
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Drops every move from the given index onward
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the list without releasing its buffer
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Converts every packed move in the list to a {@link ChessMove}
+     *
+     * @return a new collection holding one ChessMove per packed move
+     */
+    public Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(PackedMove.toChessMove(moves[i]));
+        }
+        return result;
+    }
+}
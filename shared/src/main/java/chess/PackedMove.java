@@ -0,0 +1,65 @@
+package chess;
+
+/**
+ * Static helpers for moves packed into 16 bits, the compact form used by
+ * {@link MoveList}, the game's move history and anything that stores or sends
+ * moves in bulk.
+ * <p>
+ * A packed move holds the start square in bits 0-5, the end square in bits
+ * 6-11 and the promotion piece in bits 12-15 (0 for none, otherwise the
+ * {@link ChessPiece.PieceType} ordinal plus one). Squares run from 0 (a1) to
+ * 63 (h8). Bit 15 is never set, so a packed move survives a cast to
+ * {@code short} and back unchanged.
+ */
+public final class PackedMove {
+
+    /**
+     * Packed value that is never a real move (a1 to a1), for empty slots
+     */
+    public static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param from      start square, 0 (a1) to 63 (h8)
+     * @param to        end square, 0 (a1) to 63 (h8)
+     * @param promotion piece type code to promote to, or -1 for none
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int promotion) {
+        return from | to << 6 | (promotion + 1) << 12;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the piece type code to promote to, or -1 for none
+     */
+    public static int promotion(int move) {
+        return ((move >>> 12) & 0xF) - 1;
+    }
+
+    /**
+     * @return the packed form of a move; only its low 16 bits are ever set
+     */
+    public static int fromChessMove(ChessMove move) {
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        return encode(ChessBoard.square(move.getStartPosition()), ChessBoard.square(move.getEndPosition()),
+                promotion == null ? -1 : promotion.ordinal());
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotion(move);
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)),
+                promotion < 0 ? null : TYPES[promotion]);
+    }
+}
@@ -0,0 +1,239 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree ("perft"). Comparing the counts
+ * against published reference numbers verifies the move generator, and the
+ * nodes per second measure how fast it is.
+ * <p>
+ * Run from the command line with:
+ * <pre>
+ *     mvn -pl shared exec:java -Dexec.args="[depth] [--divide] [--serial] [fen]"
+ * </pre>
+ * With no FEN, every {@link Position} is run and checked against its
+ * reference count.
+ */
+public final class Perft {
+
+    /**
+     * Standard perft test positions, with their known node counts from depth 1
+     */
+    public enum Position {
+        INITIAL("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                20, 400, 8902, 197281, 4865609, 119060324),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                48, 2039, 97862, 4085603, 193690690),
+        ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                14, 191, 2812, 43238, 674624, 11030083),
+        PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                6, 264, 9467, 422333, 15833292),
+        DISCOVERED_CHECKS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                44, 1486, 62379, 2103487, 89941194),
+        MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                46, 2079, 89890, 3894594, 164075551);
+
+        private final String fen;
+        private final long[] nodes;
+
+        Position(String fen, long... nodes) {
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        /**
+         * @return a new game set up at this position
+         */
+        public ChessGame newGame() {
+            return ChessGame.fromFen(fen);
+        }
+
+        /**
+         * @return the reference node count, or -1 if none is known for that depth
+         */
+        public long expectedNodes(int depth) {
+            return depth >= 1 && depth <= nodes.length ? nodes[depth - 1] : -1;
+        }
+
+        public int maxKnownDepth() {
+            return nodes.length;
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below a position. The game
+     * is played forward and taken back in place, so it is unchanged afterward.
+     *
+     * @param depth number of plies to search, at least 0
+     * @return the number of legal move sequences of exactly that length
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList[] moves = new MoveList[depth];
+        for (int ply = 0; ply < depth; ply++) {
+            moves[ply] = new MoveList();
+        }
+        return perft(game, depth, moves);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] buffers) {
+        MoveList moves = buffers[depth - 1];
+        moves.clear();
+        game.legalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Perft split by root move, for finding which move a generator gets wrong
+     *
+     * @param depth number of plies to search, at least 1
+     * @return the node count below each legal root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        Map<ChessMove, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            result.put(PackedMove.toChessMove(moves.get(i)), perft(game, depth - 1));
+            game.unmakeMove();
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #perft(ChessGame, int)}, but the root moves are split
+     * across the pool's threads, each searching its own copy of the game
+     *
+     * @param pool pool to run the subtrees on
+     */
+    public static long parallelPerft(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth <= 1) {
+            return perft(game, depth);
+        }
+        return pool.invoke(new RootTask(game, depth));
+    }
+
+    // Tasks are never serialized; RecursiveTask is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private static final class RootTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+
+        RootTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            MoveList moves = new MoveList();
+            game.legalMoves(moves);
+            List<SubtreeTask> subtrees = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                subtrees.add(new SubtreeTask(game, moves.get(i), depth - 1));
+            }
+            long nodes = 0;
+            for (SubtreeTask subtree : invokeAll(subtrees)) {
+                nodes += subtree.join();
+            }
+            return nodes;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int move;
+        private final int depth;
+
+        SubtreeTask(ChessGame game, int move, int depth) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            ChessGame copy = new ChessGame(game);
+            copy.makeMove(move);
+            return perft(copy, depth);
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = 5;
+        boolean divide = false;
+        boolean serial = false;
+        StringBuilder fen = new StringBuilder();
+        for (String arg : args) {
+            if (arg.equals("--divide")) {
+                divide = true;
+            } else if (arg.equals("--serial")) {
+                serial = true;
+            } else if (fen.isEmpty() && arg.chars().allMatch(Character::isDigit)) {
+                depth = Integer.parseInt(arg);
+            } else {
+                fen.append(fen.isEmpty() ? "" : " ").append(arg);
+            }
+        }
+
+        if (!fen.isEmpty()) {
+            run(fen.toString(), ChessGame.fromFen(fen), depth, -1, divide, serial);
+            return;
+        }
+        boolean passed = true;
+        for (Position position : Position.values()) {
+            int positionDepth = Math.min(depth, position.maxKnownDepth());
+            passed &= run(position.name(), position.newGame(), positionDepth,
+                    position.expectedNodes(positionDepth), divide, serial);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String name, ChessGame game, int depth, long expected, boolean divide,
+                               boolean serial) {
+        if (divide) {
+            for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+                ChessMove move = entry.getKey();
+                System.out.println(move.getStartPosition().getRow() + "," + move.getStartPosition().getColumn()
+                        + " -> " + move.getEndPosition().getRow() + "," + move.getEndPosition().getColumn()
+                        + (move.getPromotionPiece() == null ? "" : " " + move.getPromotionPiece())
+                        + ": " + entry.getValue());
+            }
+        }
+        long start = System.nanoTime();
+        long nodes = serial ? perft(game, depth) : parallelPerft(game, depth, ForkJoinPool.commonPool());
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        boolean passed = expected < 0 || nodes == expected;
+        System.out.printf("%-18s depth %d: %,d nodes in %,d ms (%,d nodes/s)%s%n", name, depth, nodes,
+                elapsed / 1_000_000, nodes * 1_000_000_000L / elapsed,
+                passed ? "" : " MISMATCH, expected " + expected);
+        return passed;
+    }
+}
@@ -0,0 +1,135 @@
+package chess;
+
+/**
+ * Evaluation terms for one piece standing on one square: material plus a
+ * piece-square bonus, in centipawns, with separate middlegame and endgame
+ * values. {@link ChessBoard} adds and subtracts them as pieces come and go,
+ * so the board's score is always up to date.
+ * <p>
+ * The bonuses follow Tomasz Michniewski's "simplified evaluation function";
+ * only the king has different middlegame and endgame tables. White pieces
+ * count positive and black pieces negative.
+ */
+final class PieceSquareTables {
+
+    /**
+     * Phase of a board with every piece still on it; each knight and bishop
+     * counts 1, each rook 2 and each queen 4
+     */
+    static final int MAX_PHASE = 24;
+
+    private static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] PHASES = {0, 4, 1, 1, 2, 0};
+
+    // Tables are written from white's side, rank 8 first, as on a diagram
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int[] MIDDLEGAME = new int[ChessBoard.PIECE_COUNT * 64];
+    private static final int[] ENDGAME = new int[ChessBoard.PIECE_COUNT * 64];
+
+    static {
+        int[][] middlegame = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+        int[][] endgame = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+        for (int type = 0; type < ChessBoard.PIECE_TYPES; type++) {
+            for (int square = 0; square < 64; square++) {
+                // Flip the diagram vertically for white; black reads it as is
+                int white = (7 - square / 8) * 8 + square % 8;
+                int black = square;
+                int whitePiece = ChessBoard.pieceIndex(ChessBoard.WHITE, type) * 64 + square;
+                int blackPiece = ChessBoard.pieceIndex(ChessBoard.BLACK, type) * 64 + square;
+                MIDDLEGAME[whitePiece] = VALUES[type] + middlegame[type][white];
+                ENDGAME[whitePiece] = VALUES[type] + endgame[type][white];
+                MIDDLEGAME[blackPiece] = -VALUES[type] - middlegame[type][black];
+                ENDGAME[blackPiece] = -VALUES[type] - endgame[type][black];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @param piece  piece index ({@link ChessBoard#pieceIndex})
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return middlegame value of the piece on the square, negative for black
+     */
+    static int middlegame(int piece, int square) {
+        return MIDDLEGAME[piece * 64 + square];
+    }
+
+    /**
+     * @return endgame value of the piece on the square, negative for black
+     */
+    static int endgame(int piece, int square) {
+        return ENDGAME[piece * 64 + square];
+    }
+
+    /**
+     * @return how much the piece counts toward the game phase
+     */
+    static int phase(int piece) {
+        return PHASES[ChessBoard.typeOf(piece)];
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per
+ * piece on a square, so adding, removing or moving a piece updates it with a
+ * single XOR instead of rehashing the whole board.
+ * <p>
+ * The keys come from a fixed seed, so the same position hashes to the same
+ * key in every JVM and keys can be shared between processes.
+ */
+final class Zobrist {
+
+    private static final long SEED = 0x2400C4E55L;
+
+    static final long[] PIECE_SQUARE = new long[ChessBoard.PIECE_COUNT * 64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT = new long[8];
+    static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = random.nextLong();
+        }
+        // One key per castling right; a set of rights hashes to the XOR of its members
+        long[] rights = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int set = 0; set < CASTLING.length; set++) {
+            for (int right = 0; right < rights.length; right++) {
+                if ((set & (1 << right)) != 0) {
+                    CASTLING[set] ^= rights[right];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT.length; file++) {
+            EN_PASSANT[file] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param piece  piece index ({@link ChessBoard#pieceIndex})
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return the key for that piece standing on that square
+     */
+    static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece * 64 + square];
+    }
+
+    /**
+     * @param rights castling rights bit set, as kept by {@link ChessGame}
+     */
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param file file of the en passant square, 0 (a) to 7 (h)
+     */
+    static long enPassant(int file) {
+        return EN_PASSANT[file];
+    }
+}
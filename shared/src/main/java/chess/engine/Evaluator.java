@@ -0,0 +1,21 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+/**
+ * Static evaluation of a position. The board keeps its material and
+ * piece-square terms up to date as moves are made and taken back, so this
+ * costs the same at every node.
+ */
+final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    /**
+     * @return the score of the position for the team to move, in centipawns
+     */
+    static int evaluate(ChessGame game) {
+        return game.getBoard().score(game.getTeamTurn());
+    }
+}
@@ -0,0 +1,237 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Hands out the legal moves of one position in the order they are most likely
+ * to cause a cutoff, generating each group only when it is reached:
+ * <ol>
+ *     <li>the hash move from the transposition table</li>
+ *     <li>captures that do not lose material, most valuable victim first and
+ *     least valuable attacker breaking ties (MVV-LVA)</li>
+ *     <li>the two killer moves, quiet moves that caused a cutoff at this ply
+ *     in a sibling position</li>
+ *     <li>the other quiet moves, ranked by the butterfly history table</li>
+ *     <li>captures that lose material by static exchange evaluation</li>
+ * </ol>
+ * A picker is reused for every node at its ply, so it allocates nothing
+ * once its buffers have grown to fit.
+ */
+final class MovePicker {
+
+    private static final int HASH = 0;
+    private static final int CAPTURES_INIT = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int QUIETS_INIT = 4;
+    private static final int QUIETS = 5;
+    private static final int BAD_CAPTURES = 6;
+    private static final int DONE = 7;
+
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+    // Indexed by piece type code: king, queen, bishop, knight, rook, pawn
+    private static final int[] VALUES = {100, 9, 3, 3, 5, 1};
+
+    private final MoveList captures = new MoveList(64);
+    private final MoveList badCaptures = new MoveList(32);
+    private final MoveList quiets = new MoveList();
+    private int[] scores = new int[64];
+
+    private ChessGame game;
+    private int[] history;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+
+    /**
+     * Starts picking moves for a position
+     *
+     * @param game     the game, in the position to pick moves for
+     * @param hashMove move from the transposition table, or 0 for none
+     * @param killers  the two killer moves for this ply, 0 where unset
+     * @param history  history scores of the side to move, indexed by
+     *                 {@link #historyIndex(int)}
+     */
+    void init(ChessGame game, int hashMove, int[] killers, int[] history) {
+        this.game = game;
+        this.hashMove = hashMove;
+        this.killer1 = killers[0];
+        this.killer2 = killers[1];
+        this.history = history;
+        capturesOnly = false;
+        stage = HASH;
+    }
+
+    /**
+     * Starts picking only the captures that do not lose material, for the
+     * quiescence search
+     *
+     * @param game the game, in the position to pick captures for
+     */
+    void initCaptures(ChessGame game) {
+        this.game = game;
+        hashMove = 0;
+        killer1 = 0;
+        killer2 = 0;
+        capturesOnly = true;
+        stage = CAPTURES_INIT;
+    }
+
+    /**
+     * @return the next legal move to try, or 0 ({@link PackedMove#NONE}) when
+     * there are no more
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH -> {
+                    stage = CAPTURES_INIT;
+                    if (hashMove != 0 && game.isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                case CAPTURES_INIT -> {
+                    captures.clear();
+                    badCaptures.clear();
+                    game.legalCaptures(captures);
+                    ChessBoard board = game.getBoard();
+                    ensureCapacity(captures.size());
+                    for (int i = 0; i < captures.size(); i++) {
+                        scores[i] = captureScore(board, captures.get(i));
+                    }
+                    index = 0;
+                    stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    while (index < captures.size()) {
+                        int move = pickBest(captures, index++);
+                        if (move == hashMove) {
+                            continue;
+                        }
+                        if (!game.getBoard().staticExchangeAtLeast(move, 0)) {
+                            badCaptures.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    index = 0;
+                    stage = capturesOnly ? DONE : KILLERS;
+                }
+                case KILLERS -> {
+                    while (index < 2) {
+                        int killer = index++ == 0 ? killer1 : killer2;
+                        if (killer != 0 && killer != hashMove && isQuiet(game.getBoard(), killer)
+                                && game.isLegal(killer)) {
+                            return killer;
+                        }
+                    }
+                    stage = QUIETS_INIT;
+                }
+                case QUIETS_INIT -> {
+                    quiets.clear();
+                    game.legalQuietMoves(quiets);
+                    ensureCapacity(quiets.size());
+                    for (int i = 0; i < quiets.size(); i++) {
+                        scores[i] = history[historyIndex(quiets.get(i))];
+                    }
+                    index = 0;
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    while (index < quiets.size()) {
+                        int move = pickBest(quiets, index++);
+                        if (move != hashMove && move != killer1 && move != killer2) {
+                            return move;
+                        }
+                    }
+                    index = 0;
+                    stage = BAD_CAPTURES;
+                }
+                case BAD_CAPTURES -> {
+                    while (index < badCaptures.size()) {
+                        int move = badCaptures.get(index++);
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return PackedMove.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param move packed move
+     * @return index of the move in a butterfly history table, which has one
+     * slot for every pair of from and to squares
+     */
+    static int historyIndex(int move) {
+        return move & 0xFFF;
+    }
+
+    /**
+     * Checks whether a move neither captures nor promotes
+     *
+     * @param board board the move is about to be made on
+     * @param move  packed move
+     * @return true if the move leaves the material on the board unchanged
+     */
+    static boolean isQuiet(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (board.pieceTypeAt(to) >= 0 || PackedMove.promotion(move) >= 0) {
+            return false;
+        }
+        // A pawn moving diagonally onto an empty square captures en passant
+        return board.pieceTypeAt(from) != PAWN || (from & 7) == (to & 7);
+    }
+
+    private static int captureScore(ChessBoard board, int move) {
+        int victim = board.pieceTypeAt(PackedMove.to(move));
+        int attacker = board.pieceTypeAt(PackedMove.from(move));
+        int promotion = PackedMove.promotion(move);
+        int score = (victim < 0 ? VALUES[PAWN] : VALUES[victim]) * 128 - VALUES[attacker];
+        return promotion < 0 ? score : score + VALUES[promotion] * 128;
+    }
+
+    /**
+     * Selection sort step: swaps the best scored move at or after an index
+     * into it. Cutoffs usually come early, so sorting the whole list up
+     * front would mostly be wasted.
+     */
+    private int pickBest(MoveList moves, int from) {
+        int best = from;
+        for (int i = from + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != from) {
+            moves.set(best, moves.get(from));
+            moves.set(from, move);
+            int score = scores[best];
+            scores[best] = scores[from];
+            scores[from] = score;
+        }
+        return move;
+    }
+
+    private void ensureCapacity(int size) {
+        if (scores.length < size) {
+            scores = Arrays.copyOf(scores, Math.max(size, scores.length * 2));
+        }
+    }
+}
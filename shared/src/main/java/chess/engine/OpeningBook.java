@@ -0,0 +1,202 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.PackedMove;
+import chess.PolyglotKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * An opening book in the Polyglot {@code .bin} layout, memory-mapped rather
+ * than read, so a book of any size costs no heap and opens instantly.
+ * <p>
+ * The file is a run of 16-byte big-endian entries sorted by key as an
+ * unsigned number: the position key (8 bytes), the move (2), its weight (2)
+ * and a learning field (4) that is ignored. Positions are found by binary
+ * search. A move packs the to square in bits 0-5 and the from square in bits
+ * 6-11, both counting from a1 as {@link PackedMove} does, and the promotion
+ * piece in bits 12-14 (1 knight, 2 bishop, 3 rook, 4 queen). Castling is
+ * written as the king taking its own rook.
+ * <p>
+ * Positions are keyed by {@link PolyglotKey}, so books built by other
+ * Polyglot tools work as they are. Every move found is checked for legality
+ * before it is played, so a stray key collision can never produce an illegal
+ * move.
+ * <p>
+ * A book is read-only and safe to share between threads.
+ */
+public final class OpeningBook {
+
+    static final int ENTRY_BYTES = 16;
+
+    private static final int KEY_OFFSET = 0;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    // Polyglot promotion codes 1-4, as piece type codes
+    private static final int[] PROMOTIONS = {
+            -1,
+            ChessPiece.PieceType.KNIGHT.ordinal(),
+            ChessPiece.PieceType.BISHOP.ordinal(),
+            ChessPiece.PieceType.ROOK.ordinal(),
+            ChessPiece.PieceType.QUEEN.ordinal(),
+    };
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file into memory. The file is closed again right away; the
+     * mapping stays valid until the book is garbage collected.
+     *
+     * @param path the {@code .bin} book file
+     * @return the opened book
+     * @throws IOException if the file cannot be read, is larger than 2 GB or
+     *                     is not a whole number of entries
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_BYTES != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + path + " is " + length + " bytes");
+            }
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+    }
+
+    /**
+     * @return number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Picks a book move for the game's current position at random, each move
+     * as likely as its share of the position's total weight
+     *
+     * @param game   the game to look up
+     * @param random source of the choice
+     * @return a legal book move, or null if the book has none for the position
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        long key = PolyglotKey.of(game);
+        int first = lowerBound(key);
+        int total = 0;
+        for (int i = first; i < size && keyAt(i) == key; i++) {
+            total += playable(game, i) ? weightAt(i) : 0;
+        }
+        if (total == 0) {
+            return null;
+        }
+        int roll = random.nextInt(total);
+        for (int i = first; ; i++) {
+            if (playable(game, i)) {
+                roll -= weightAt(i);
+                if (roll < 0) {
+                    return PackedMove.toChessMove(moveAt(game, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the book move with the highest weight for the game's current position
+     *
+     * @param game the game to look up
+     * @return the legal book move weighted highest, or null if the book has
+     * none for the position
+     */
+    public ChessMove best(ChessGame game) {
+        long key = PolyglotKey.of(game);
+        int best = -1;
+        for (int i = lowerBound(key); i < size && keyAt(i) == key; i++) {
+            if (playable(game, i) && (best < 0 || weightAt(i) > weightAt(best))) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : PackedMove.toChessMove(moveAt(game, best));
+    }
+
+    /**
+     * Converts a packed move to its book encoding, for building books
+     *
+     * @param game the game the move is about to be made in
+     * @param move packed move ({@link PackedMove})
+     * @return the move as a Polyglot book stores it
+     */
+    public static int encode(ChessGame game, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (game.getBoard().pieceTypeAt(from) == KING && Math.abs(to - from) == 2) {
+            // Castling is stored as the king moving onto its rook's corner
+            to = to > from ? from + 3 : from - 4;
+        }
+        int promotion = PackedMove.promotion(move);
+        int code = 0;
+        for (int i = 1; i < PROMOTIONS.length; i++) {
+            if (PROMOTIONS[i] == promotion) {
+                code = i;
+            }
+        }
+        return to | from << 6 | code << 12;
+    }
+
+    /**
+     * @return index of the first entry whose key is not below the given one
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean playable(ChessGame game, int index) {
+        return weightAt(index) > 0 && game.isLegal(moveAt(game, index));
+    }
+
+    /**
+     * @return the entry's move as a packed move, with castling turned back
+     * into the king moving two squares
+     */
+    private int moveAt(ChessGame game, int index) {
+        int move = entries.getChar(index * ENTRY_BYTES + MOVE_OFFSET);
+        int to = move & 0x3F;
+        int from = move >>> 6 & 0x3F;
+        int code = move >>> 12 & 0x7;
+        if (game.getBoard().pieceTypeAt(from) == KING && (from == 4 || from == 60)
+                && (to == from + 3 || to == from - 4)) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        return PackedMove.encode(from, to, code < PROMOTIONS.length ? PROMOTIONS[code] : -1);
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES + KEY_OFFSET);
+    }
+
+    private int weightAt(int index) {
+        return entries.getChar(index * ENTRY_BYTES + WEIGHT_OFFSET);
+    }
+}
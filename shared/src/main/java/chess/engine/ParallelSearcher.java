@@ -0,0 +1,144 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: several {@link Searcher}s search the same root at once, sharing
+ * one {@link TranspositionTable} and nothing else. Helper threads start their
+ * iterative deepening a ply or two deeper than the main one, so they fill the
+ * table with results the main search then finds instead of recomputing.
+ * <p>
+ * The main search runs on the calling thread and decides when to stop; the
+ * helpers are stopped as soon as it finishes. The deepest completed result
+ * wins. Helper threads are kept between searches, so {@link #close()} the
+ * searcher when done with it.
+ */
+public class ParallelSearcher implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final Searcher main;
+    private final List<Searcher> helpers = new ArrayList<>();
+    private final ExecutorService pool;
+
+    /**
+     * @param threads   total number of search threads, including the caller's
+     * @param megabytes size of the shared transposition table
+     */
+    public ParallelSearcher(int threads, int megabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one search thread");
+        }
+        table = new TranspositionTable(megabytes);
+        main = new Searcher(table);
+        for (int i = 1; i < threads; i++) {
+            helpers.add(new Searcher(table));
+        }
+        pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return helpers.size() + 1;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * @param book opening book {@link #bestMove} plays from while it knows
+     *             the position, or null to always search
+     */
+    public void setOpeningBook(OpeningBook book) {
+        main.setOpeningBook(book);
+    }
+
+    /**
+     * Finds the best move for the team whose turn it is, from the opening
+     * book if it has the position and otherwise by searching
+     *
+     * @param game   the game to search
+     * @param limits when to stop searching
+     * @return the best move found, or null if there is no legal move
+     */
+    public ChessMove bestMove(ChessGame game, SearchLimits limits) {
+        ChessMove move = main.bookMove(game);
+        return move != null ? move : search(game, limits).move();
+    }
+
+    /**
+     * Searches the game's current position on every thread
+     *
+     * @param game   the game to search
+     * @param limits when to stop searching; the node budget applies to each
+     *               thread
+     * @return the deepest result any thread completed, with the node count
+     * summed over all threads
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        main.reset();
+        List<Future<SearchResult>> running = new ArrayList<>(helpers.size());
+        for (int i = 0; i < helpers.size(); i++) {
+            Searcher helper = helpers.get(i);
+            helper.reset();
+            // Helpers take turns starting one and two plies deeper
+            int firstDepth = 2 + i % 2;
+            running.add(pool.submit(() -> helper.run(game, limits, firstDepth)));
+        }
+
+        SearchResult best;
+        try {
+            best = main.run(game, limits, 1);
+        } finally {
+            helpers.forEach(Searcher::stop);
+        }
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : running) {
+            SearchResult result = join(future);
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.move() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes, best.millis());
+    }
+
+    /**
+     * Stops the current search as soon as possible, from any thread
+     */
+    public void stop() {
+        main.stop();
+        helpers.forEach(Searcher::stop);
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+}
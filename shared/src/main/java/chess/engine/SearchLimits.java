@@ -0,0 +1,48 @@
+package chess.engine;
+
+/**
+ * How far a search may go. The search stops at whichever limit it reaches
+ * first. The time and node budgets only apply once the first iteration has
+ * finished, so there is always a move to play and a score for it, even if
+ * that overruns the budget.
+ *
+ * @param depth      deepest iteration to search, in plies
+ * @param timeMillis wall clock budget in milliseconds, or 0 for none
+ * @param nodes      node budget, or 0 for none
+ */
+public record SearchLimits(int depth, long timeMillis, long nodes) {
+
+    /**
+     * Deepest iteration the search will start, whatever the limits say
+     */
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (depth < 1 || timeMillis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Search limits must be positive");
+        }
+        depth = Math.min(depth, MAX_DEPTH);
+    }
+
+    /**
+     * @return limits that search to a fixed depth
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * @return limits that search for about the given time
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis, 0);
+    }
+
+    /**
+     * @return limits that search about the given number of nodes, or just
+     * the first iteration if that takes more
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, 0, nodes);
+    }
+}
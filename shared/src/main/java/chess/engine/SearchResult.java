@@ -0,0 +1,24 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * The outcome of a search
+ *
+ * @param move   best move found, or null if the side to move has no legal move
+ * @param score  score of the position for the side to move, in centipawns;
+ *               mates are reported as {@link Searcher#MATE} minus the number
+ *               of plies to mate
+ * @param depth  deepest iteration that was completed
+ * @param nodes  number of positions visited
+ * @param millis time spent searching
+ */
+public record SearchResult(ChessMove move, int score, int depth, long nodes, long millis) {
+
+    /**
+     * @return whether the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Searcher.MATE - Searcher.MAX_PLY;
+    }
+}
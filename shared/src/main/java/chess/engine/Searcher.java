@@ -0,0 +1,395 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Negamax alpha-beta search over {@link ChessGame}, with iterative deepening
+ * and aspiration windows. Moves are played and taken back on a private copy
+ * of the game, so a search allocates nothing per node and never touches the
+ * caller's game.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}: a hit deep enough cuts
+ * the search off, and otherwise its move is tried first. The remaining moves
+ * come from a {@link MovePicker}: winning captures, then killer moves, then
+ * quiet moves by their history score, then losing captures.
+ * <p>
+ * A searcher keeps per-ply move buffers between searches and is not thread
+ * safe; use one per thread. Several searchers may share one table.
+ * {@link #stop()} may be called from any thread.
+ */
+public class Searcher {
+
+    static final int INFINITY = 32_000;
+    static final int MATE = 31_000;
+    static final int MAX_PLY = 128;
+
+    private static final int ASPIRATION_WINDOW = 35;
+    // How many nodes to visit between looks at the clock
+    private static final int CLOCK_INTERVAL = 1024;
+    private static final int DEFAULT_TABLE_MB = 16;
+    // History scores are halved once one reaches this, keeping recent cutoffs weightier
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // Two quiet moves per ply that recently caused a cutoff there
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Butterfly history: cutoff credit per side and from-to square pair
+    private final int[][] history = new int[2][64 * 64];
+    private final TranspositionTable table;
+    private final SplittableRandom random = new SplittableRandom();
+    private OpeningBook book;
+
+    private ChessGame game;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    // The budgets only count once an iteration has finished, so there is always a result
+    private boolean budgeted;
+    private volatile boolean stopped;
+    private int rootBest;
+
+    /**
+     * Creates a searcher with a transposition table of its own
+     */
+    public Searcher() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param table transposition table to use, which may be shared with
+     *              other searchers
+     */
+    public Searcher(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            pickers[ply] = new MovePicker();
+        }
+    }
+
+    /**
+     * @param book opening book {@link #bestMove} plays from while it knows
+     *             the position, or null to always search
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Finds the best move for the team whose turn it is, from the opening
+     * book if it has the position and otherwise by searching
+     *
+     * @param game   the game to search
+     * @param limits when to stop searching
+     * @return the best move found, or null if there is no legal move
+     */
+    public ChessMove bestMove(ChessGame game, SearchLimits limits) {
+        ChessMove move = bookMove(game);
+        return move != null ? move : search(game, limits).move();
+    }
+
+    /**
+     * @return a move from the opening book, chosen at random by weight, or
+     * null if there is no book or it does not have the position
+     */
+    ChessMove bookMove(ChessGame game) {
+        return book == null ? null : book.pick(game, random);
+    }
+
+    /**
+     * Searches the game's current position by iterative deepening, reporting
+     * the result of the deepest iteration completed
+     *
+     * @param game   the game to search
+     * @param limits when to stop searching
+     * @return the best move, its score and search statistics
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        reset();
+        table.newSearch();
+        return run(game, limits, 1);
+    }
+
+    /**
+     * Readies the searcher for {@link #run}. A {@link #stop()} that comes
+     * after this is honored even if {@code run} has not started yet.
+     */
+    void reset() {
+        stopped = false;
+        nodes = 0;
+        for (int[] slots : killers) {
+            Arrays.fill(slots, 0);
+        }
+        ageHistory(history[0]);
+        ageHistory(history[1]);
+    }
+
+    /**
+     * Iterative deepening from a given depth, the body of {@link #search}
+     *
+     * @param firstDepth depth of the first iteration; helper threads start
+     *                   deeper so they do not all search the same tree
+     */
+    SearchResult run(ChessGame game, SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        this.game = new ChessGame(game);
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        budgeted = false;
+
+        MoveList rootMoves = new MoveList();
+        this.game.legalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, 0);
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completed = 0;
+        for (int depth = Math.min(firstDepth, limits.depth()); depth <= limits.depth(); depth++) {
+            int score = aspirationSearch(rootMoves, depth, bestScore);
+            if (stopped) {
+                // Only stop() can cut the first iteration short; its move
+                // beats none, but its score means nothing
+                if (completed == 0) {
+                    bestMove = rootBest;
+                }
+                break;
+            }
+            bestMove = rootBest;
+            bestScore = score;
+            completed = depth;
+            budgeted = true;
+            moveToFront(rootMoves, bestMove);
+            // A forced mate will not get any better by searching deeper
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+            // The next iteration would rarely finish in the time left
+            if (deadline != Long.MAX_VALUE && System.nanoTime() > start + (deadline - start) / 2) {
+                break;
+            }
+        }
+        return new SearchResult(PackedMove.toChessMove(bestMove), bestScore, completed, nodes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Stops the current search as soon as possible; it reports the result of
+     * the last iteration it completed, or the best move so far with a score
+     * of 0 if it had not completed any
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Searches the root in a narrow window around the previous iteration's
+     * score, widening it and searching again whenever the score falls outside
+     */
+    private int aspirationSearch(MoveList rootMoves, int depth, int guess) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = depth >= 4 ? Math.max(guess - delta, -INFINITY) : -INFINITY;
+        int beta = depth >= 4 ? Math.min(guess + delta, INFINITY) : INFINITY;
+        while (true) {
+            int score = searchRoot(rootMoves, depth, alpha, beta);
+            if (stopped) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int searchRoot(MoveList rootMoves, int depth, int alpha, int beta) {
+        int best = -INFINITY;
+        rootBest = rootMoves.get(0);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            game.makeMove(move);
+            int score = -negamax(depth - 1, 1, -beta, -alpha);
+            game.unmakeMove();
+            if (stopped) {
+                break;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    rootBest = move;
+                }
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (outOfBudget()) {
+            return 0;
+        }
+        if (game.getHalfmoveClock() >= 100 || game.hasOccurredBefore(1)) {
+            return 0;
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(ply, alpha, beta);
+        }
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        int color = game.getTeamTurn().ordinal();
+        MovePicker picker = pickers[ply];
+        picker.init(game, hashMove, killers[ply], history[color]);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            boolean quiet = MovePicker.isQuiet(game.getBoard(), move);
+            game.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (score >= beta) {
+                    if (quiet) {
+                        rememberCutoff(move, ply, depth, history[color]);
+                    }
+                    break;
+                }
+            }
+        }
+        if (bestMove == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bound == TranspositionTable.UPPER ? 0 : bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    /**
+     * Searches captures only until the position is quiet, so the evaluation
+     * is never taken in the middle of an exchange. The side to move may
+     * always stand pat on the static evaluation, and captures that lose
+     * material by static exchange evaluation are skipped.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        int standPat = Evaluator.evaluate(game);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+
+        MovePicker picker = pickers[ply];
+        picker.initCaptures(game);
+        int best = standPat;
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            if (outOfBudget()) {
+                return 0;
+            }
+            game.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks it against the node and time budgets
+     *
+     * @return whether the search has to stop
+     */
+    private boolean outOfBudget() {
+        nodes++;
+        if (budgeted && ((nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline || nodes >= nodeLimit)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Credits a quiet move that caused a beta cutoff: it becomes the first
+     * killer of its ply, and its history score grows with the square of the
+     * remaining depth, since cutoffs near the root save the most work
+     */
+    private void rememberCutoff(int move, int ply, int depth, int[] sideHistory) {
+        int[] slots = killers[ply];
+        if (slots[0] != move) {
+            slots[1] = slots[0];
+            slots[0] = move;
+        }
+        int index = MovePicker.historyIndex(move);
+        sideHistory[index] += depth * depth;
+        if (sideHistory[index] >= HISTORY_LIMIT) {
+            ageHistory(sideHistory);
+        }
+    }
+
+    private static void ageHistory(int[] sideHistory) {
+        for (int i = 0; i < sideHistory.length; i++) {
+            sideHistory[i] >>= 1;
+        }
+    }
+
+    private static void moveToFront(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                for (int j = i; j > 0; j--) {
+                    moves.set(j, moves.get(j - 1));
+                }
+                moves.set(0, move);
+                return;
+            }
+        }
+    }
+}
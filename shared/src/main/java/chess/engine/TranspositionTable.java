@@ -0,0 +1,165 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key, meant to be
+ * shared by every search thread without locks.
+ * <p>
+ * Each entry is two longs in one {@code long[]}: the key XOR the data, then
+ * the data. Threads read and write entries without synchronizing, so an entry
+ * can be torn by two writers racing; a torn entry fails the XOR check on the
+ * next probe and reads as a miss. The data packs the move (bits 0-15), the
+ * score (bits 16-31, signed), the depth (bits 32-39), the bound (bits 40-41)
+ * and the search generation (bits 42-49). Probing and storing never allocate.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * What {@link #probe} returns when the position is not in the table
+     */
+    public static final long MISS = 0L;
+
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private final long[] entries;
+    private final int mask;
+    private int generation;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power-of-two number
+     *                  of entries
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB");
+        }
+        long count = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        count = Math.min(count, 1L << 29);
+        entries = new long[(int) count * 2];
+        mask = (int) count - 1;
+    }
+
+    /**
+     * Forgets every entry
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @return the entry's packed data, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : MISS;
+    }
+
+    /**
+     * Saves a search result, unless the slot holds a deeper result for the
+     * same position or a deeper result from the current search
+     *
+     * @param key   Zobrist key of the position
+     * @param move  best packed move, or 0 for none
+     * @param score score from the searching side's point of view
+     * @param depth depth the position was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param ply   distance from the root, so mate scores can be stored
+     *              relative to this position rather than the root
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = index(key);
+        long old = entries[index + 1];
+        boolean samePosition = (entries[index] ^ old) == key;
+        if (old != 0 && depth < depth(old) && (samePosition || generation(old) == generation)) {
+            return;
+        }
+        if (samePosition && move == 0) {
+            // Keep the move from a shallower search rather than losing it
+            move = move(old);
+        }
+        long data = (move & 0xFFFFL)
+                | (toStored(score, ply) & 0xFFFFL) << 16
+                | (long) Math.min(depth, 0xFF) << 32
+                | (long) bound << 40
+                | (long) generation << 42;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * @return approximate share of the table in use by the current search,
+     * in thousandths
+     */
+    public int hashfull() {
+        int used = 0;
+        int sample = Math.min(1000, mask + 1);
+        for (int i = 0; i < sample; i++) {
+            long data = entries[2 * i + 1];
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * @param ply distance of the probing position from the root
+     * @return the stored score, with mate scores made relative to the root
+     */
+    public static int score(long entry, int ply) {
+        int score = (short) (entry >>> 16);
+        if (score >= Searcher.MATE - Searcher.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Searcher.MATE + Searcher.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 42) & 0xFF;
+    }
+
+    private static int toStored(int score, int ply) {
+        if (score >= Searcher.MATE - Searcher.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Searcher.MATE + Searcher.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
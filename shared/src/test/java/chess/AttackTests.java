@@ -0,0 +1,35 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AttackTests {
+
+    @Test
+    @DisplayName("Reverse Attack Lookup Matches Attack Map")
+    public void isAttackedMatchesAttackMap() {
+        for (Perft.Position position : Perft.Position.values()) {
+            ChessGame game = position.newGame();
+            MoveList moves = new MoveList();
+            game.legalMoves(moves);
+            // The root position and every position one move later
+            for (int i = -1; i < moves.size(); i++) {
+                if (i >= 0) {
+                    game.makeMove(moves.get(i));
+                }
+                ChessBoard board = game.getBoard();
+                for (int color = ChessBoard.WHITE; color <= ChessBoard.BLACK; color++) {
+                    long attacks = board.attacks(color);
+                    for (int square = 0; square < 64; square++) {
+                        Assertions.assertEquals((attacks & (1L << square)) != 0, board.isAttacked(square, color),
+                                position + ": square " + square + " for color " + color);
+                    }
+                }
+                if (i >= 0) {
+                    game.unmakeMove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+
+public class BinaryCodecTests {
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Binary Round Trip")
+    public void roundTrip(Perft.Position position) {
+        var game = position.newGame();
+        var buffer = ByteBuffer.allocate(64);
+        game.writeTo(buffer);
+        Assertions.assertEquals(game.encodedSize(), buffer.position());
+
+        buffer.flip();
+        var read = ChessGame.readFrom(buffer);
+        Assertions.assertFalse(buffer.hasRemaining());
+        Assertions.assertEquals(position.getFen(), read.toFen());
+        Assertions.assertEquals(game.getZobristKey(), read.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Starting Position Takes 30 Bytes")
+    public void startingSize() throws Exception {
+        var game = new ChessGame();
+        Assertions.assertEquals(24, game.getBoard().encodedSize());
+        Assertions.assertEquals(30, game.encodedSize());
+
+        // An odd piece count leaves half a byte unused
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        var buffer = ByteBuffer.allocate(30);
+        game.writeTo(buffer);
+        Assertions.assertEquals(30, buffer.position());
+        Assertions.assertEquals(game.toFen(), ChessGame.readFrom(buffer.flip()).toFen());
+    }
+
+    @Test
+    @DisplayName("Unknown Piece Code Is Rejected")
+    public void unknownPiece() {
+        var buffer = ByteBuffer.allocate(9).putLong(1L).put((byte) 0x0C).flip();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.readFrom(buffer));
+    }
+
+    @Test
+    @DisplayName("En Passant Square Is Checked")
+    public void enPassantChecked() throws Exception {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        var buffer = ByteBuffer.allocate(game.encodedSize());
+        game.writeTo(buffer);
+        int enPassantByte = game.getBoard().encodedSize() + 1;
+
+        // e6 is on the wrong side for black to capture on
+        buffer.put(enPassantByte, (byte) (44 + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.readFrom(buffer.rewind()));
+
+        // d3 is on the right rank, but no white pawn has just passed it
+        buffer.put(enPassantByte, (byte) (19 + 1));
+        var read = ChessGame.readFrom(buffer.rewind());
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", read.toFen());
+    }
+}
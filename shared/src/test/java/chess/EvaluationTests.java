@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Starting Position Is Level")
+    public void startingPositionLevel() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(0, board.score(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, board.score(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores The Same For The Other Team")
+    public void mirrored() {
+        var white = ChessGame.fromFen("4k3/8/8/8/8/2N5/PP6/4K2R w - - 0 1").getBoard();
+        var black = ChessGame.fromFen("4k2r/pp6/2n5/8/8/8/8/4K3 w - - 0 1").getBoard();
+
+        Assertions.assertTrue(white.score(ChessGame.TeamColor.WHITE) > 0);
+        Assertions.assertEquals(white.score(ChessGame.TeamColor.WHITE), black.score(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(-white.score(ChessGame.TeamColor.WHITE), white.score(ChessGame.TeamColor.BLACK));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Incremental Score Matches Full Recount")
+    public void incrementalMatchesRecount(Perft.Position position) {
+        checkTree(position.newGame(), 3);
+    }
+
+    private static void checkTree(ChessGame game, int depth) {
+        Assertions.assertEquals(recount(game.getBoard()), game.getBoard().score(ChessGame.TeamColor.WHITE));
+        if (depth == 0) {
+            return;
+        }
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            checkTree(game, depth - 1);
+            game.unmakeMove();
+        }
+    }
+
+    private static int recount(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            int piece = board.pieceAt(square);
+            if (piece != ChessBoard.NO_PIECE) {
+                middlegame += PieceSquareTables.middlegame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        int weight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (middlegame * weight + endgame * (PieceSquareTables.MAX_PHASE - weight)) / PieceSquareTables.MAX_PHASE;
+    }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class FenTests {
+
+    private static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("FEN Round Trip")
+    public void roundTrip(Perft.Position position) {
+        Assertions.assertEquals(position.getFen(), ChessGame.fromFen(position.getFen()).toFen());
+    }
+
+    @Test
+    @DisplayName("Initial Position Matches New Game")
+    public void initialPosition() {
+        var game = ChessGame.fromFen(INITIAL);
+
+        Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(INITIAL, new ChessGame().toFen());
+    }
+
+    @Test
+    @DisplayName("Moves Update Every Field")
+    public void movesUpdateFields() throws Exception {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        var out = new StringBuilder();
+        game.toFen(out);
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", out.toString());
+    }
+
+    @Test
+    @DisplayName("Move Clocks Are Optional")
+    public void clocksOptional() {
+        var game = ChessGame.fromFen("8/8/8/8/8/8/8/K6k b - -");
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+        Assertions.assertEquals("8/8/8/8/8/8/8/K6k b - - 0 1", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Black Move Without Clocks Starts Move 2")
+    public void clocksOptionalBlackMoves() throws Exception {
+        var game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3");
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", game.toFen());
+    }
+
+    @Test
+    @DisplayName("En Passant Square Needs A Pawn That Just Passed It")
+    public void enPassantChecked() {
+        // A pawn on d2 cannot just have jumped over e3, and e3 is the wrong side anyway
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ChessGame.fromFen("4k3/8/8/8/8/8/3P4/4K3 w - e3 0 1"));
+        // Right rank, but no black pawn on e5
+        var game = ChessGame.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1");
+        Assertions.assertEquals("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1", game.toFen());
+        Assertions.assertEquals(ChessGame.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1").getZobristKey(),
+                game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN Is Rejected")
+    public void malformed() {
+        for (String fen : new String[]{"", "8/8/8/8/8/8/8 w - - 0 1", "9/8/8/8/8/8/8/8 w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1", "8/8/8/8/8/8/8/8 x - - 0 1",
+                "8/8/8/8/8/8/8/8 w KX - 0 1", "8/8/8/8/8/8/8/8 w - e4 0 1", "8/8/8/8/8/8/8/8 w - - 0 0",
+                "8/8/8/8/8/8/8/8 w - - 0 1 extra", "8/8/8/8/8/8/8/K6k w - - \u0663 1"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Positions Are Cached")
+    public void positionsCached() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = ChessPosition.of(row, col);
+                Assertions.assertSame(position, ChessPosition.of(row, col));
+                Assertions.assertEquals(new ChessPosition(row, col), position);
+                Assertions.assertEquals(new ChessPosition(row, col).hashCode(), position.hashCode());
+            }
+        }
+        Assertions.assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+    }
+
+    @Test
+    @DisplayName("Pieces Are Cached")
+    public void piecesCached() {
+        for (var color : ChessGame.TeamColor.values()) {
+            for (var type : ChessPiece.PieceType.values()) {
+                var piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type));
+                Assertions.assertEquals(new ChessPiece(color, type), piece);
+                Assertions.assertEquals(new ChessPiece(color, type).hashCode(), piece.hashCode());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Board Hands Out Shared Pieces")
+    public void boardUsesSharedPieces() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                board.getPiece(ChessPosition.of(1, 5)));
+        Assertions.assertSame(board.getPiece(ChessPosition.of(7, 1)), board.getPiece(ChessPosition.of(7, 8)));
+    }
+}
@@ -0,0 +1,93 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class GameStatusTests {
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Any Legal Move Agrees With Full Generation")
+    public void hasAnyLegalMoveMatchesGeneration(Perft.Position position) {
+        checkTree(position.newGame(), 3, new MoveList[3]);
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        var game = new ChessGame();
+        for (int round = 1; round <= 2; round++) {
+            Assertions.assertFalse(game.isDrawByRepetition(), "Position has only occurred " + round + " times");
+            shuffleKnights(game);
+        }
+        Assertions.assertTrue(game.isDrawByRepetition());
+        Assertions.assertTrue(game.isDraw());
+        Assertions.assertFalse(game.isDrawByFiftyMoveRule());
+
+        game.unmakeMove();
+        Assertions.assertFalse(game.isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Resets Repetition And Fifty-Move Count")
+    public void pawnMoveResets() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        shuffleKnights(game);
+        Assertions.assertFalse(game.isDrawByRepetition());
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+
+        game.goToPly(4);
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Fifty-Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        var game = new ChessGame();
+        for (int i = 0; i < 25; i++) {
+            shuffleKnights(game);
+        }
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isDrawByFiftyMoveRule());
+
+        game.unmakeMove();
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        Assertions.assertFalse(game.isDrawByFiftyMoveRule());
+    }
+
+    /**
+     * Both teams move a knight out and back, returning to the same position
+     */
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+    }
+
+    private static void checkTree(ChessGame game, int depth, MoveList[] buffers) {
+        if (buffers[depth - 1] == null) {
+            buffers[depth - 1] = new MoveList();
+        }
+        MoveList moves = buffers[depth - 1];
+        moves.clear();
+        game.legalMoves(moves);
+        Assertions.assertEquals(!moves.isEmpty(), game.hasAnyLegalMove(game.getTeamTurn()), game.getBoard().toString());
+        if (depth == 1) {
+            return;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            checkTree(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+    }
+}
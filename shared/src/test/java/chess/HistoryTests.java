@@ -0,0 +1,90 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class HistoryTests {
+
+    private static final int PLIES = 40;
+
+    private ChessGame game;
+    private long[] keys;
+
+    /**
+     * Plays a fixed line from Kiwipete, picking a different legal move each
+     * ply, and records the key of every position along the way
+     */
+    @BeforeEach
+    public void playLine() {
+        game = Perft.Position.KIWIPETE.newGame();
+        keys = new long[PLIES + 1];
+        var moves = new MoveList();
+        for (int ply = 0; ply < PLIES; ply++) {
+            keys[ply] = game.getZobristKey();
+            moves.clear();
+            game.legalMoves(moves);
+            game.makeMove(moves.get((ply * 7) % moves.size()));
+        }
+        keys[PLIES] = game.getZobristKey();
+    }
+
+    @Test
+    @DisplayName("Undo And Redo Restore Each Position")
+    public void undoAndRedo() {
+        for (int ply = PLIES; ply > 0; ply--) {
+            Assertions.assertEquals(keys[ply], game.getZobristKey());
+            game.unmakeMove();
+        }
+        Assertions.assertEquals(keys[0], game.getZobristKey());
+        Assertions.assertEquals(PLIES, game.getHistorySize());
+
+        for (int ply = 1; ply <= PLIES; ply++) {
+            game.redoMove();
+            Assertions.assertEquals(keys[ply], game.getZobristKey());
+        }
+        Assertions.assertThrows(IllegalStateException.class, game::redoMove);
+    }
+
+    @Test
+    @DisplayName("Jump To Any Ply")
+    public void goToPly() {
+        for (int ply : new int[]{0, 25, 3, PLIES, 17, 17, 0}) {
+            game.goToPly(ply);
+            Assertions.assertEquals(ply, game.getPly());
+            Assertions.assertEquals(keys[ply], game.getZobristKey(), "Wrong position at ply " + ply);
+            Assertions.assertEquals(ply == 0 ? 0 : keys[ply - 1], ply == 0 ? 0 : game.getHistoryKey(ply - 1));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> game.goToPly(PLIES + 1));
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    @DisplayName("New Move Discards Redo History")
+    public void newMoveTruncates() {
+        game.goToPly(10);
+        int replaced = game.getHistoryMove(10);
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        int other = moves.get(0) == replaced ? moves.get(1) : moves.get(0);
+        game.makeMove(other);
+
+        Assertions.assertEquals(11, game.getHistorySize());
+        Assertions.assertEquals(other, game.getHistoryMove(10));
+        Assertions.assertThrows(IllegalStateException.class, game::redoMove);
+    }
+
+    @Test
+    @DisplayName("Copy Keeps Played Moves")
+    public void copyKeepsHistory() {
+        game.goToPly(30);
+        var copy = new ChessGame(game);
+
+        Assertions.assertEquals(30, copy.getHistorySize());
+        copy.goToPly(12);
+        Assertions.assertEquals(keys[12], copy.getZobristKey());
+        Assertions.assertEquals(keys[30], game.getZobristKey());
+        Assertions.assertEquals(PLIES, game.getHistorySize());
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class LegalityTests {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.KING};
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Lazy Moves Match Generated Moves")
+    public void lazyMovesMatchGeneration(Perft.Position position) {
+        var game = position.newGame();
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        Set<ChessMove> expected = new HashSet<>(moves.toChessMoves());
+
+        var iterated = new ArrayList<ChessMove>();
+        game.legalMoveIterator().forEachRemaining(iterated::add);
+        Assertions.assertEquals(expected.size(), iterated.size(), "Iterator repeated or dropped moves");
+        Assertions.assertEquals(expected, new HashSet<>(iterated));
+        Assertions.assertEquals(expected, game.streamLegalMoves().collect(Collectors.toSet()));
+
+        for (ChessMove move : expected) {
+            var start = move.getStartPosition();
+            Assertions.assertEquals(new HashSet<>(game.validMoves(start)),
+                    game.streamValidMoves(start).collect(Collectors.toSet()));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Single Move Legality Matches Generated Moves")
+    public void isLegalMatchesGeneration(Perft.Position position) {
+        var game = position.newGame();
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        Set<ChessMove> expected = new HashSet<>(moves.toChessMoves());
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    var move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+                    Assertions.assertEquals(expected.contains(move), game.isLegal(move), move.toString());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Captures And Quiet Moves Split The Legal Moves")
+    public void capturesAndQuietsPartition(Perft.Position position) {
+        var game = position.newGame();
+        var all = new MoveList();
+        var captures = new MoveList();
+        var quiets = new MoveList();
+        game.legalMoves(all);
+        game.legalCaptures(captures);
+        game.legalQuietMoves(quiets);
+
+        Assertions.assertEquals(all.size(), captures.size() + quiets.size());
+        Set<ChessMove> split = new HashSet<>(captures.toChessMoves());
+        split.addAll(quiets.toChessMoves());
+        Assertions.assertEquals(new HashSet<>(all.toChessMoves()), split);
+    }
+
+    @Test
+    @DisplayName("Only Pawns Capture En Passant")
+    public void enPassantSquareIsQuietForOtherPieces() {
+        var game = ChessGame.fromFen("4k3/8/8/3pP3/4N3/8/8/4K3 w - d6 0 1");
+        var captures = new MoveList();
+        var quiets = new MoveList();
+        game.legalCaptures(captures);
+        game.legalQuietMoves(quiets);
+
+        var pawnTakes = new ChessMove(ChessPosition.of(36), ChessPosition.of(43), null);
+        var knightMoves = new ChessMove(ChessPosition.of(28), ChessPosition.of(43), null);
+        Assertions.assertEquals(Set.of(pawnTakes), new HashSet<>(captures.toChessMoves()));
+        Assertions.assertTrue(quiets.toChessMoves().contains(knightMoves));
+        Assertions.assertFalse(quiets.toChessMoves().contains(pawnTakes));
+    }
+
+    @Test
+    @DisplayName("Off Board Moves Are Invalid")
+    public void offBoardMovesRejected() {
+        var game = new ChessGame();
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(0, 1), new ChessPosition(3, 1), null)));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(2, 1), new ChessPosition(9, 1), null)));
+    }
+
+    @Test
+    @DisplayName("Passing The Turn Back Forfeits En Passant")
+    public void setTeamTurnClearsEnPassant() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(12), ChessPosition.of(28), null));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(11))
+                .contains(new ChessMove(ChessPosition.of(11), ChessPosition.of(20), null)));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1", game.toFen());
+    }
+}
@@ -0,0 +1,104 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Every Move")
+    public void unmakeRestoresEveryMove() {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        var expected = TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """);
+        long key = game.getZobristKey();
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = ChessPosition.of(row, col);
+                var piece = game.getBoard().getPiece(position);
+                if (piece == null || piece.getTeamColor() != ChessGame.TeamColor.WHITE) {
+                    continue;
+                }
+                for (var move : game.validMoves(position)) {
+                    game.makeMove(toPacked(move));
+                    Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+                    game.unmakeMove();
+                    Assertions.assertEquals(expected, game.getBoard(), "Board not restored after " + move);
+                    Assertions.assertEquals(key, game.getZobristKey(), "Key not restored after " + move);
+                }
+            }
+        }
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Unmake Castling And En Passant")
+    public void unmakeSpecialMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        var beforeCapture = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p|P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """);
+        long key = game.getZobristKey();
+
+        game.makeMove(toPacked(new ChessMove(ChessPosition.of(5, 5), ChessPosition.of(6, 4), null)));
+        Assertions.assertNull(game.getBoard().getPiece(ChessPosition.of(5, 4)), "En passant did not capture");
+        game.unmakeMove();
+        Assertions.assertEquals(beforeCapture, game.getBoard());
+        Assertions.assertEquals(key, game.getZobristKey());
+
+        game.makeMove(toPacked(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 3), null)));
+        Assertions.assertNotNull(game.getBoard().getPiece(ChessPosition.of(1, 4)), "Castling did not move rook");
+        game.unmakeMove();
+        Assertions.assertEquals(beforeCapture, game.getBoard());
+        Assertions.assertEquals(key, game.getZobristKey());
+        Assertions.assertTrue(game.validMoves(ChessPosition.of(1, 5))
+                .contains(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 7), null)));
+    }
+
+    private static int toPacked(ChessMove move) {
+        var promotion = move.getPromotionPiece();
+        return PackedMove.encode(ChessBoard.square(move.getStartPosition()), ChessBoard.square(move.getEndPosition()),
+                promotion == null ? -1 : promotion.ordinal());
+    }
+}
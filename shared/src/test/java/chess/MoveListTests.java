@@ -0,0 +1,86 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+public class MoveListTests {
+
+    @Test
+    @DisplayName("Packed Moves Round Trip")
+    public void packedRoundTrip() {
+        int move = PackedMove.encode(ChessBoard.square(7, 2), ChessBoard.square(8, 1), ChessBoard.QUEEN);
+
+        Assertions.assertEquals(ChessBoard.square(7, 2), PackedMove.from(move));
+        Assertions.assertEquals(ChessBoard.square(8, 1), PackedMove.to(move));
+        Assertions.assertEquals(ChessBoard.QUEEN, PackedMove.promotion(move));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1),
+                ChessPiece.PieceType.QUEEN), PackedMove.toChessMove(move));
+        Assertions.assertEquals(-1, PackedMove.promotion(PackedMove.encode(0, 8, -1)));
+    }
+
+    @Test
+    @DisplayName("ChessMove Converts To And From Packed Form")
+    public void chessMovePackedRoundTrip() {
+        var game = Perft.Position.PROMOTIONS.newGame();
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = PackedMove.toChessMove(moves.get(i));
+            short packed = (short) move.toPacked();
+
+            Assertions.assertTrue(packed >= 0, "Packed move should fit in 15 bits");
+            Assertions.assertEquals(moves.get(i), packed);
+            Assertions.assertEquals(move, ChessMove.fromPacked(packed));
+        }
+    }
+
+    @Test
+    @DisplayName("Buffer Matches Collection API")
+    public void bufferMatchesCollection() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var moves = new MoveList();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                var piece = board.getPiece(position);
+                if (piece == null) {
+                    continue;
+                }
+                moves.clear();
+                piece.pieceMoves(board, position, moves);
+                Assertions.assertEquals(new HashSet<>(piece.pieceMoves(board, position)),
+                        new HashSet<>(moves.toChessMoves()), "Packed moves differ from pieceMoves");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Buffer Grows When Full")
+    public void growsWhenFull() {
+        var moves = new MoveList(1);
+        moves.add(1);
+        moves.add(2);
+        moves.add(3);
+
+        Assertions.assertEquals(3, moves.size());
+        Assertions.assertEquals(3, moves.get(2));
+        moves.clear();
+        Assertions.assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Empty Buffer Grows On First Add")
+    public void growsFromZeroCapacity() {
+        var moves = new MoveList(0);
+        moves.add(1);
+        moves.add(2);
+
+        Assertions.assertEquals(2, moves.size());
+        Assertions.assertEquals(1, moves.get(0));
+        Assertions.assertEquals(2, moves.get(1));
+    }
+}
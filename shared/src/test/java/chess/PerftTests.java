@@ -0,0 +1,41 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    // Deep enough to reach castling, en passant and promotions in every position
+    private static final long MAX_NODES = 500_000;
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Reference Node Counts")
+    public void referenceCounts(Perft.Position position) {
+        var game = position.newGame();
+        for (int depth = 1; position.expectedNodes(depth) >= 0 && position.expectedNodes(depth) <= MAX_NODES;
+             depth++) {
+            Assertions.assertEquals(position.expectedNodes(depth), Perft.perft(game, depth),
+                    position + " perft(" + depth + ")");
+        }
+        Assertions.assertEquals(position.newGame().getZobristKey(), game.getZobristKey(),
+                "Perft did not restore the game");
+    }
+
+    @Test
+    @DisplayName("Parallel And Divide Agree")
+    public void parallelAndDivideAgree() {
+        var game = Perft.Position.KIWIPETE.newGame();
+        long expected = Perft.Position.KIWIPETE.expectedNodes(3);
+
+        Assertions.assertEquals(expected, Perft.parallelPerft(game, 3, ForkJoinPool.commonPool()));
+        var divided = Perft.divide(game, 3);
+        Assertions.assertEquals(48, divided.size());
+        Assertions.assertEquals(expected, divided.values().stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Undefended Piece Is Won")
+    public void undefended() {
+        var board = ChessGame.fromFen("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1").getBoard();
+        int move = move("d1", "d5");
+
+        Assertions.assertTrue(board.staticExchangeAtLeast(move, 100));
+        Assertions.assertFalse(board.staticExchangeAtLeast(move, 101));
+    }
+
+    @Test
+    @DisplayName("Defended Pawn Costs The Rook")
+    public void defendedPawn() {
+        var board = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/8/3RK3 w - - 0 1").getBoard();
+
+        Assertions.assertFalse(board.staticExchangeAtLeast(move("d1", "d5"), 0));
+        Assertions.assertTrue(board.staticExchangeAtLeast(move("d1", "d5"), -400));
+    }
+
+    @Test
+    @DisplayName("Pawn Takes Defended Knight")
+    public void pawnTakesKnight() {
+        var board = ChessGame.fromFen("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1").getBoard();
+
+        // Wins a knight for a pawn
+        Assertions.assertTrue(board.staticExchangeAtLeast(move("e4", "d5"), 220));
+        Assertions.assertFalse(board.staticExchangeAtLeast(move("e4", "d5"), 221));
+    }
+
+    @Test
+    @DisplayName("Rook Behind Rook Joins The Exchange")
+    public void xray() {
+        // Rxd5 exd5 Rxd5: both rooks see d5 in turn
+        var doubled = ChessGame.fromFen("3rk3/8/8/3n4/8/8/3R4/3RK3 w - - 0 1").getBoard();
+        Assertions.assertTrue(doubled.staticExchangeAtLeast(move("d2", "d5"), 0));
+
+        // Without the second rook, the defending rook wins the exchange
+        var single = ChessGame.fromFen("3rk3/8/8/3n4/8/8/3R4/4K3 w - - 0 1").getBoard();
+        Assertions.assertFalse(single.staticExchangeAtLeast(move("d2", "d5"), 0));
+    }
+
+    @Test
+    @DisplayName("King Cannot Take A Defended Piece")
+    public void kingCapture() {
+        var board = ChessGame.fromFen("4k3/8/8/8/8/2b5/3p4/4K3 w - - 0 1").getBoard();
+
+        Assertions.assertFalse(board.staticExchangeAtLeast(move("e1", "d2"), 0));
+    }
+
+    private static int move(String from, String to) {
+        return PackedMove.encode(square(from), square(to), -1);
+    }
+
+    private static int square(String name) {
+        return ChessBoard.square(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Key Follows Pieces")
+    public void keyFollowsPieces() {
+        var board = new ChessBoard();
+        Assertions.assertEquals(0L, board.getZobristKey());
+
+        var position = ChessPosition.of(4, 4);
+        board.addPiece(position, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        long withQueen = board.getZobristKey();
+        Assertions.assertNotEquals(0L, withQueen);
+
+        board.addPiece(position, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        Assertions.assertNotEquals(withQueen, board.getZobristKey());
+
+        board.addPiece(position, null);
+        Assertions.assertEquals(0L, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Equal Boards Share Keys")
+    public void equalBoardsShareKeys() {
+        var reset = new ChessBoard();
+        reset.resetBoard();
+
+        var built = new ChessBoard();
+        for (int row = 8; row >= 1; row--) {
+            for (int col = 8; col >= 1; col--) {
+                built.addPiece(ChessPosition.of(row, col), reset.getPiece(ChessPosition.of(row, col)));
+            }
+        }
+
+        Assertions.assertEquals(reset, built);
+        Assertions.assertEquals(reset.getZobristKey(), built.getZobristKey());
+        Assertions.assertEquals(reset.hashCode(), built.hashCode());
+
+        built.addPiece(ChessPosition.of(2, 5), null);
+        Assertions.assertNotEquals(reset, built);
+    }
+}
@@ -0,0 +1,90 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+
+public class MovePickerTests {
+
+    private static final int[] NO_KILLERS = {0, 0};
+
+    @ParameterizedTest
+    @EnumSource(Perft.Position.class)
+    @DisplayName("Every Legal Move Is Picked Once")
+    public void picksEveryMoveOnce(Perft.Position position) {
+        ChessGame game = position.newGame();
+        var moves = new MoveList();
+        game.legalMoves(moves);
+        // A hash move and killers that are legal here, and one that is not
+        int[] killers = {moves.get(moves.size() - 1), PackedMove.encode(0, 63, -1)};
+
+        var picker = new MovePicker();
+        picker.init(game, moves.get(0), killers, new int[64 * 64]);
+        MoveList picked = drain(picker);
+
+        Assertions.assertEquals(moves.size(), picked.size());
+        Assertions.assertEquals(moves.get(0), picked.get(0));
+        Assertions.assertEquals(new HashSet<>(moves.toChessMoves()), new HashSet<>(picked.toChessMoves()));
+    }
+
+    @Test
+    @DisplayName("Captures Come In Stages")
+    public void stagedOrder() {
+        // White can take the defended queen with the pawn or the rook
+        ChessGame game = ChessGame.fromFen("4k3/8/3p4/2p5/3q4/4P3/8/R2RK3 w - - 0 1");
+        int pawnTakesQueen = move("e3", "d4");
+        int rookTakesQueen = move("d1", "d4");
+        int killer = move("a1", "a7");
+        int[] history = new int[64 * 64];
+        int favored = move("e1", "f2");
+        history[MovePicker.historyIndex(favored)] = 100;
+
+        var picker = new MovePicker();
+        picker.init(game, 0, new int[]{killer, 0}, history);
+        MoveList picked = drain(picker);
+
+        Assertions.assertEquals(pawnTakesQueen, picked.get(0));
+        Assertions.assertEquals(rookTakesQueen, picked.get(1));
+        Assertions.assertEquals(killer, picked.get(2));
+        Assertions.assertEquals(favored, picked.get(3));
+    }
+
+    @Test
+    @DisplayName("Losing Captures Come Last")
+    public void losingCapturesLast() {
+        // The rook can take a pawn that the other pawn defends
+        ChessGame game = ChessGame.fromFen("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1");
+        var picker = new MovePicker();
+        picker.init(game, 0, NO_KILLERS, new int[64 * 64]);
+        MoveList picked = drain(picker);
+
+        Assertions.assertEquals(move("d1", "d5"), picked.get(picked.size() - 1));
+
+        picker.initCaptures(game);
+        Assertions.assertEquals(PackedMove.NONE, picker.next());
+    }
+
+    private static MoveList drain(MovePicker picker) {
+        var picked = new MoveList();
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            picked.add(move);
+        }
+        return picked;
+    }
+
+    private static int move(String from, String to) {
+        return PackedMove.encode(square(from), square(to), -1);
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + name.charAt(0) - 'a';
+    }
+}
@@ -0,0 +1,141 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.PackedMove;
+import chess.PolyglotKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class OpeningBookTests {
+
+    @Test
+    @DisplayName("Finds The Moves For A Position")
+    public void findsPosition() throws IOException {
+        var game = new ChessGame();
+        var book = new Builder()
+                .add(game, "e2", "e4", 3)
+                .add(game, "d2", "d4", 1)
+                .add(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), "e1", "e2", 1)
+                .add(ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1"), "e1", "d1", 1)
+                .open();
+
+        Assertions.assertEquals(4, book.size());
+        Assertions.assertEquals(move("e2", "e4"), book.best(game));
+        var random = new SplittableRandom(1);
+        for (int i = 0; i < 20; i++) {
+            var picked = book.pick(game, random);
+            Assertions.assertTrue(picked.equals(move("e2", "e4")) || picked.equals(move("d2", "d4")));
+        }
+
+        game.makeMove(PackedMove.encode(12, 28, -1));
+        Assertions.assertNull(book.best(game));
+        Assertions.assertNull(book.pick(game, random));
+    }
+
+    @Test
+    @DisplayName("Reads Entries Keyed The Polyglot Way")
+    public void polyglotKeys() throws IOException {
+        // One entry as a Polyglot tool writes it: 1. e4 from the start position
+        ByteBuffer entry = ByteBuffer.allocate(OpeningBook.ENTRY_BYTES)
+                .putLong(0x463b96181691fc9cL).putChar((char) (28 | 12 << 6)).putChar((char) 1).putInt(0);
+        Path file = Files.createTempFile("book", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, entry.array());
+
+        Assertions.assertEquals(move("e2", "e4"), OpeningBook.open(file).best(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Castling Is Stored As King Takes Rook")
+    public void castling() throws IOException {
+        var game = ChessGame.fromFen("r3k3/8/8/8/8/8/8/4K2R w Kq - 0 1");
+        var black = ChessGame.fromFen("r3k3/8/8/8/8/8/8/4K2R b Kq - 0 1");
+        var book = new Builder()
+                .add(game, "e1", "g1", 1)
+                .add(black, "e8", "c8", 1)
+                .open();
+
+        Assertions.assertEquals(move("e1", "g1"), book.best(game));
+        Assertions.assertEquals(move("e8", "c8"), book.best(black));
+        Assertions.assertEquals(7 | 4 << 6, OpeningBook.encode(game, PackedMove.encode(4, 6, -1)));
+    }
+
+    @Test
+    @DisplayName("Unweighted And Illegal Moves Are Skipped")
+    public void skipsUnplayable() throws IOException {
+        var game = new ChessGame();
+        var book = new Builder()
+                .add(game, "e2", "e5", 50)
+                .add(game, "g1", "f3", 0)
+                .open();
+
+        Assertions.assertNull(book.best(game));
+        Assertions.assertNull(book.pick(game, new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("Engine Plays From The Book")
+    public void searcherUsesBook() throws IOException {
+        var game = new ChessGame();
+        var searcher = new Searcher();
+        searcher.setOpeningBook(new Builder().add(game, "a2", "a3", 1).open());
+
+        Assertions.assertEquals(move("a2", "a3"), searcher.bestMove(game, SearchLimits.depth(4)));
+        game.makeMove(PackedMove.encode(8, 16, -1));
+        Assertions.assertNotNull(searcher.bestMove(game, SearchLimits.depth(1)));
+    }
+
+    @Test
+    @DisplayName("Partial Entries Are Rejected")
+    public void rejectsTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("book", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[OpeningBook.ENTRY_BYTES + 3]);
+
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+
+    private static ChessMove move(String from, String to) {
+        return PackedMove.toChessMove(PackedMove.encode(square(from), square(to), -1));
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + name.charAt(0) - 'a';
+    }
+
+    /**
+     * Writes book entries to a temporary file in key order
+     */
+    private static class Builder {
+
+        private final List<long[]> entries = new ArrayList<>();
+
+        Builder add(ChessGame game, String from, String to, int weight) {
+            int move = OpeningBook.encode(game, PackedMove.encode(square(from), square(to), -1));
+            entries.add(new long[]{PolyglotKey.of(game), move, weight});
+            return this;
+        }
+
+        OpeningBook open() throws IOException {
+            entries.sort((a, b) -> Long.compareUnsigned(a[0], b[0]));
+            ByteBuffer buffer = ByteBuffer.allocate(entries.size() * OpeningBook.ENTRY_BYTES);
+            for (long[] entry : entries) {
+                buffer.putLong(entry[0]).putChar((char) entry[1]).putChar((char) entry[2]).putInt(0);
+            }
+            Path file = Files.createTempFile("book", ".bin");
+            file.toFile().deleteOnExit();
+            Files.write(file, buffer.array());
+            return OpeningBook.open(file);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearcherTests {
+
+    @Test
+    @DisplayName("Threads Agree On A Forced Mate")
+    public void findsMate() {
+        var game = ChessGame.fromFen("7k/8/5K2/8/8/8/8/6R1 w - - 0 1");
+        try (var searcher = new ParallelSearcher(4, 4)) {
+            var result = searcher.search(game, SearchLimits.depth(8));
+
+            Assertions.assertEquals(Searcher.MATE - 3, result.score());
+            Assertions.assertEquals("7k/8/5K2/8/8/8/8/6R1 w - - 0 1", game.toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Time Limit Stops Every Thread")
+    public void timeLimit() {
+        var game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        try (var searcher = new ParallelSearcher(3, 4)) {
+            long start = System.nanoTime();
+            var result = searcher.search(game, SearchLimits.time(200));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            Assertions.assertNotNull(result.move());
+            Assertions.assertTrue(result.depth() >= 1);
+            Assertions.assertTrue(millis < 2_000, "Search took " + millis + " ms");
+        }
+    }
+
+    @Test
+    @DisplayName("Single Thread Matches Searcher")
+    public void singleThread() {
+        var game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        try (var searcher = new ParallelSearcher(1, 1)) {
+            Assertions.assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null),
+                    searcher.bestMove(game, SearchLimits.depth(3)));
+        }
+    }
+}
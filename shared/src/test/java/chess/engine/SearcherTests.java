@@ -0,0 +1,98 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearcherTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        // Back rank mate with Ra8#
+        var game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        var result = new Searcher().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.move());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Searcher.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        // Kf7 leaves the king only h7, then Rh1 mates
+        var game = ChessGame.fromFen("7k/8/5K2/8/8/8/8/6R1 w - - 0 1");
+        var result = new Searcher().search(game, SearchLimits.depth(6));
+
+        Assertions.assertEquals(Searcher.MATE - 3, result.score());
+        Assertions.assertTrue(result.depth() < 6, "Search should stop once the mate is found");
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        var game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        var move = new Searcher().bestMove(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), move);
+    }
+
+    @Test
+    @DisplayName("Sees The Recapture Past The Horizon")
+    public void quiescence() {
+        // Qxd5 wins a pawn at depth 1, but exd5 takes the queen back
+        var game = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        var result = new Searcher().search(game, SearchLimits.depth(1));
+
+        Assertions.assertNotEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null),
+                result.move());
+        Assertions.assertTrue(result.score() > 500, "Should still be a queen up, got " + result.score());
+    }
+
+    @Test
+    @DisplayName("Leaves The Game As It Was")
+    public void restoresGame() {
+        var game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        String fen = game.toFen();
+        new Searcher().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(0, game.getHistorySize());
+    }
+
+    @Test
+    @DisplayName("Respects Node Budget")
+    public void nodeBudget() {
+        var result = new Searcher().search(new ChessGame(), SearchLimits.nodes(5_000));
+
+        Assertions.assertNotNull(result.move());
+        Assertions.assertTrue(result.nodes() <= 5_000, "Visited " + result.nodes() + " nodes");
+    }
+
+    @Test
+    @DisplayName("Tiny Budget Still Finishes The First Depth")
+    public void tinyBudget() {
+        var result = new Searcher().search(new ChessGame(), SearchLimits.nodes(1));
+
+        Assertions.assertNotNull(result.move());
+        Assertions.assertEquals(1, result.depth());
+        Assertions.assertFalse(result.isMate());
+        Assertions.assertTrue(Math.abs(result.score()) < 100, "Score " + result.score());
+    }
+
+    @Test
+    @DisplayName("No Move In Checkmate")
+    public void noMoveWhenMated() {
+        var game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/5PPP/6K1 b - - 0 1");
+        var result = new Searcher().search(game, SearchLimits.depth(2));
+
+        Assertions.assertNull(result.move());
+        Assertions.assertEquals(-Searcher.MATE, result.score());
+    }
+}
@@ -0,0 +1,55 @@
+package chess.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    // 1 MB holds 65536 entries, so keys this far apart share a slot
+    private static final long SAME_SLOT = 1L << 16;
+
+    @Test
+    @DisplayName("Stored Entry Reads Back")
+    public void storeAndProbe() {
+        var table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 0x1234, -250, 7, TranspositionTable.LOWER, 3);
+
+        long entry = table.probe(key);
+        Assertions.assertNotEquals(TranspositionTable.MISS, entry);
+        Assertions.assertEquals(0x1234, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry, 3));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(key + SAME_SLOT));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Relative To The Position")
+    public void mateScores() {
+        var table = new TranspositionTable(1);
+        // Mate in 5 plies from the root, found 2 plies in
+        table.store(42, 0, Searcher.MATE - 5, 4, TranspositionTable.EXACT, 2);
+
+        // Reached again 4 plies from the root, the mate is 7 plies away
+        Assertions.assertEquals(Searcher.MATE - 7, TranspositionTable.score(table.probe(42), 4));
+    }
+
+    @Test
+    @DisplayName("Deeper Entries Are Kept Within A Search")
+    public void depthPreferred() {
+        var table = new TranspositionTable(1);
+        table.store(1, 0, 10, 8, TranspositionTable.EXACT, 0);
+        table.store(1 + SAME_SLOT, 0, 20, 3, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(8, TranspositionTable.depth(table.probe(1)));
+
+        table.store(1 + SAME_SLOT, 0, 20, 9, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(1));
+
+        // Entries from an earlier search give way to anything new
+        table.newSearch();
+        table.store(1, 0, 10, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(2, TranspositionTable.depth(table.probe(1)));
+    }
+}